@@ -0,0 +1,58 @@
+package org.example.poprojectgalaxyv7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Civilization.attack and summonCivilization between the civilizations of a GalaxyState galaxy. Every call
+// takes the next pair, half the registry apart, so larger galaxies touch as much memory as a real interaction
+// round does; powers are reset before summoning so each call does the same work.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CivilizationBenchmark {
+    private int next = 0;
+
+    @Benchmark
+    public boolean attack(GalaxyState state) {
+        CivilizationRegistry civilizations = state.simulation.getCivilizations();
+        int attacker = nextAttacker(civilizations);
+        return civilizations.get(attacker).attack(civilizations.get(defenderOf(attacker, civilizations)));
+    }
+
+    @Benchmark
+    public int attackAndSummon(GalaxyState state) {
+        CivilizationRegistry civilizations = state.simulation.getCivilizations();
+        int attackerId = nextAttacker(civilizations);
+        Civilization attacker = civilizations.get(attackerId);
+        Civilization defender = civilizations.get(defenderOf(attackerId, civilizations));
+        attacker.setPowerPoints(100);
+        defender.setPowerPoints(60);
+        if (attacker.attack(defender)) {
+            attacker.summonCivilization(defender);
+        }
+        return attacker.getPowerPoints();
+    }
+
+    private int nextAttacker(CivilizationRegistry civilizations) {
+        if (++next >= civilizations.size()) {
+            next = 0;
+        }
+        return next;
+    }
+
+    private static int defenderOf(int attacker, CivilizationRegistry civilizations) {
+        return (attacker + civilizations.size() / 2) % civilizations.size();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.poprojectgalaxyv7;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Galaxy shared by the simulation benchmarks, parameterized by star count and planets per star.
+// It is rebuilt for every iteration because interaction rounds conquer planets and change the workload.
+@State(Scope.Benchmark)
+public class GalaxyState {
+    // Every iteration gets the same galaxy, so results do not depend on placement luck
+    public static final long SEED = 42;
+
+    // Up to MAX_STARS_COUNT, the galaxy sizes hardware has to be sized for
+    @Param({"16", "1000", "10000"})
+    public int starsCount;
+
+    @Param({"4", "16"})
+    public int planetsPerStar;
+
+    public GalaxySimulation simulation;
+
+    @Setup(Level.Iteration)
+    public void createGalaxy() {
+        simulation = new GalaxySimulation(starsCount, planetsPerStar, planetsPerStar, SEED);
+        // Placement progress goes to stdout, keep it out of the measurements
+        simulation.setVerbose(false);
+        simulation.createGalaxy();
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.poprojectgalaxyv7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// InputConfig.loadFromCsv on a configuration file shaped like src/main/resources/galaxy_config.csv, with one
+// System row per star. The sizes match GalaxyState; no galaxy is built, so they are parameters of this state.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputConfigBenchmark {
+    // Distance between neighbouring stars of the generated grid
+    private static final int STAR_SPACING = 400;
+
+    @Param({"16", "1000", "10000"})
+    public int starsCount;
+
+    @Param({"4", "16"})
+    public int planetsPerStar;
+
+    private String configPath;
+
+    @Setup(Level.Trial)
+    public void writeConfig() throws IOException {
+        Path file = Files.createTempFile("galaxy-config-benchmark", ".csv");
+        file.toFile().deleteOnExit();
+
+        StringBuilder config = new StringBuilder()
+                .append("Parameter,Value\n")
+                .append("StarsCount,").append(starsCount).append('\n')
+                .append("MinPlanetsPerStar,").append(planetsPerStar).append('\n')
+                .append("MaxPlanetsPerStar,").append(planetsPerStar).append('\n')
+                .append("SimulationSpeed,2\n");
+        int columns = (int) Math.ceil(Math.sqrt(starsCount));
+        for (int i = 0; i < starsCount; i++) {
+            int x = (i % columns) * STAR_SPACING + STAR_SPACING / 2;
+            int y = (i / columns) * STAR_SPACING + STAR_SPACING / 2;
+            config.append("System,").append(x).append(',').append(y).append(',')
+                    .append(SimulationConfig.maxStarRadius).append(',').append(planetsPerStar).append('\n');
+        }
+        Files.writeString(file, config);
+        configPath = file.toString();
+    }
+
+    @Benchmark
+    public InputConfig loadFromCsv() {
+        InputConfig config = new InputConfig();
+        config.loadFromCsv(configPath);
+        return config;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.poprojectgalaxyv7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Cost of recording a tick on the simulation thread, for both output formats
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutputBenchmark {
+    private Path directory;
+    private SimulationOutput csvOutput;
+    private ColumnarSimulationOutput columnarOutput;
+
+    @Setup(Level.Iteration)
+    public void openOutputs() throws IOException {
+        directory = Files.createTempDirectory("galaxy-output-benchmark");
+        csvOutput = new SimulationOutput(directory.resolve("output.csv").toString());
+        columnarOutput = new ColumnarSimulationOutput(directory.resolve("output" + ColumnarSimulationOutput.FILE_EXTENSION).toString());
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeOutputs() {
+        csvOutput.close();
+        columnarOutput.close();
+    }
+
+    @Benchmark
+    public void recordTickCsv(GalaxyState state) {
+        csvOutput.recordTick(state.simulation);
+    }
+
+    @Benchmark
+    public void recordTickColumnar(GalaxyState state) {
+        columnarOutput.recordTick(state.simulation);
+    }
+}
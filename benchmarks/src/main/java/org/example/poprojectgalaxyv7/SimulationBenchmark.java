@@ -0,0 +1,45 @@
+package org.example.poprojectgalaxyv7;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Tick phases of GalaxySimulation and galaxy creation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Benchmark
+    public void updatePlanetPositions(GalaxyState state) {
+        state.simulation.updatePlanetPositions();
+    }
+
+    @Benchmark
+    public void interactionRound(GalaxyState state) {
+        state.simulation.processCivilizationInteractions();
+    }
+
+    @Benchmark
+    public void tick(GalaxyState state) {
+        state.simulation.tick();
+    }
+
+    @Benchmark
+    public void createGalaxy(GalaxyState state, Blackhole blackhole) {
+        GalaxySimulation simulation = new GalaxySimulation(state.starsCount, state.planetsPerStar, state.planetsPerStar,
+                GalaxyState.SEED);
+        simulation.setVerbose(false);
+        simulation.createGalaxy();
+        blackhole.consume(simulation);
+    }
+}
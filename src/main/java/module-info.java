@@ -1,6 +1,8 @@
 module org.example.poprojectgalaxyv7 {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.management;
+    requires jdk.httpserver;
 
     requires org.controlsfx.controls;
     requires com.dlsc.formsfx;
@@ -0,0 +1,168 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+// Headless Monte Carlo mode: runs one galaxy per seed in a seed range, spread across all cores,
+// until a single civilization owns every remaining planet or the tick limit is reached,
+// then prints a summary of the results.
+//
+// Usage: BatchRunner <config.csv> <firstSeed> <runs> [tickLimit] [threads]
+public class BatchRunner implements SimulationConfig {
+    public static final int DEFAULT_TICK_LIMIT = 1_000_000;
+
+    private final int starsCount;
+    private final int minPlanetsPerStar;
+    private final int maxPlanetsPerStar;
+    private final List<StarSystemDefinition> starSystems;
+    private final int interactionChance;
+    private final int interactionRange;
+    private final int tickLimit;
+
+    public BatchRunner(InputConfig config, int tickLimit) {
+        this.starsCount = config.getStarsCount();
+        this.minPlanetsPerStar = config.getMinPlanetsPerStar();
+        this.maxPlanetsPerStar = config.getMaxPlanetsPerStar();
+        this.starSystems = List.copyOf(config.getStarSystems());
+        this.interactionChance = config.getInteractionChance();
+        this.interactionRange = config.getInteractionRange();
+        this.tickLimit = tickLimit;
+    }
+
+    // Outcome of the galaxy created from one seed
+    public record RunResult(long seed, boolean dominated, long ticks, int winnerCivilization, int winnerPower,
+                            int starsExploded) {
+    }
+
+    /**
+     * Run every seed in [firstSeed, firstSeed + runs) on a pool of the given size.
+     *
+     * @return One result per seed, in seed order
+     */
+    public List<RunResult> run(long firstSeed, int runs, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // Each galaxy runs sequentially on one worker; the galaxies themselves are independent
+            return pool.submit(() -> LongStream.range(firstSeed, firstSeed + runs)
+                    .parallel()
+                    .mapToObj(this::runSeed)
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public RunResult runSeed(long seed) {
+        GalaxySimulation simulation = new GalaxySimulation(starsCount, minPlanetsPerStar, maxPlanetsPerStar, seed);
+        simulation.setVerbose(false);
+        RunObserver observer = new RunObserver();
+        simulation.addListener(observer);
+        // Defined systems keep their layout, the seed still varies planets and civilizations
+        if (starSystems.isEmpty()) {
+            simulation.createGalaxy();
+        } else {
+            simulation.createGalaxy(starSystems);
+        }
+        simulation.setInteractionChance(interactionChance);
+        simulation.setInteractionRange(interactionRange);
+
+        // Ownership only changes during interaction rounds, which is where the observer checks for a winner
+        while (!observer.finished && simulation.getTickCount() < tickLimit) {
+            simulation.tick();
+        }
+
+        int winnerPower = observer.winner >= 0 ? simulation.getCivilizations().get(observer.winner).getPowerPoints() : 0;
+        return new RunResult(seed, observer.winner >= 0, simulation.getTickCount(), observer.winner, winnerPower,
+                observer.starsExploded);
+    }
+
+    // Counts exploded stars and stops the run once at most one civilization owns planets
+    private static class RunObserver implements SimulationListener {
+        int starsExploded = 0;
+        int winner = -1;
+        boolean finished = false;
+        int[] lastCivilization = new int[1];
+
+        @Override
+        public void onStarExploded(Star star) {
+            starsExploded++;
+        }
+
+        @Override
+        public void onInteractionRound(GalaxySimulation simulation) {
+            CivilizationAggregates aggregates = simulation.getCivilizationAggregates();
+            if (aggregates.getLiveCivilizationCount() > 1) return;
+
+            // Either one civilization is left or every star exploded
+            finished = true;
+            if (aggregates.copyLiveCivilizations(lastCivilization) == 1) {
+                winner = lastCivilization[0];
+            }
+        }
+    }
+
+    public static String summarize(List<RunResult> results) {
+        int dominated = 0;
+        long tickSum = 0;
+        long minTicks = Long.MAX_VALUE;
+        long maxTicks = 0;
+        long powerSum = 0;
+        long explodedSum = 0;
+
+        for (RunResult result : results) {
+            explodedSum += result.starsExploded();
+            if (!result.dominated()) continue;
+            dominated++;
+            tickSum += result.ticks();
+            minTicks = Math.min(minTicks, result.ticks());
+            maxTicks = Math.max(maxTicks, result.ticks());
+            powerSum += result.winnerPower();
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append("Runs: ").append(results.size()).append('\n');
+        summary.append("Dominated: ").append(dominated).append('\n');
+        if (dominated > 0) {
+            summary.append("Ticks to domination: mean ").append(tickSum / dominated)
+                    .append(", min ").append(minTicks)
+                    .append(", max ").append(maxTicks).append('\n');
+            summary.append("Winner power: mean ").append(powerSum / dominated).append('\n');
+        }
+        if (!results.isEmpty()) {
+            summary.append("Stars exploded: mean ").append(String.format("%.2f", explodedSum / (double) results.size()))
+                    .append('\n');
+        }
+        return summary.toString();
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: BatchRunner <config.csv> <firstSeed> <runs> [tickLimit] [threads]");
+            System.exit(1);
+        }
+
+        InputConfig config = new InputConfig();
+        if (!config.loadFromCsv(args[0])) {
+            System.err.println("Failed to load configuration from " + args[0]);
+            System.exit(1);
+        }
+        long firstSeed = Long.parseLong(args[1]);
+        int runs = Integer.parseInt(args[2]);
+        int tickLimit = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_TICK_LIMIT;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        List<RunResult> results = new BatchRunner(config, tickLimit).run(firstSeed, runs, threads);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.print(summarize(results));
+        System.out.println("Elapsed: " + elapsedMillis + " ms on " + threads + " threads");
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.poprojectgalaxyv7;
+
+// Maps galaxy (world) coordinates to the galaxy view on screen: screen = (world - position) * zoom.
+// Renderers draw only star systems that intersect the visible world rectangle, and use the version
+// to notice that the camera moved since their last frame.
+public class Camera implements SimulationConfig {
+    //ENCAPSULATION
+    private double x = 0; // World coordinates of the top-left corner of the view
+    private double y = 0;
+    private double zoom = 1;
+    private double viewWidth;
+    private double viewHeight;
+    private long version = 0;
+
+    /**
+     * @param viewWidth  Width of the view on screen
+     * @param viewHeight Height of the view on screen
+     */
+    public Camera(double viewWidth, double viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+
+    public void setViewSize(double viewWidth, double viewHeight) {
+        if (viewWidth == this.viewWidth && viewHeight == this.viewHeight) return;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        version++;
+    }
+
+    /**
+     * Show the whole world, centered. Worlds smaller than the view are shown at their natural size.
+     */
+    public void fit(double worldWidth, double worldHeight) {
+        zoom = clampZoom(Math.min(1, Math.min(viewWidth / worldWidth, viewHeight / worldHeight)));
+        x = (worldWidth - viewWidth / zoom) / 2;
+        y = (worldHeight - viewHeight / zoom) / 2;
+        version++;
+    }
+
+    // Move the view by a distance in screen pixels, e.g. a mouse drag
+    public void pan(double screenDx, double screenDy) {
+        x -= screenDx / zoom;
+        y -= screenDy / zoom;
+        version++;
+    }
+
+    // Zoom by a factor while keeping the world point under the given screen position in place
+    public void zoomAt(double factor, double screenX, double screenY) {
+        double worldX = toWorldX(screenX);
+        double worldY = toWorldY(screenY);
+        zoom = clampZoom(zoom * factor);
+        x = worldX - screenX / zoom;
+        y = worldY - screenY / zoom;
+        version++;
+    }
+
+    public double toScreenX(double worldX) {
+        return (worldX - x) * zoom;
+    }
+
+    public double toScreenY(double worldY) {
+        return (worldY - y) * zoom;
+    }
+
+    public double toWorldX(double screenX) {
+        return x + screenX / zoom;
+    }
+
+    public double toWorldY(double screenY) {
+        return y + screenY / zoom;
+    }
+
+    // Whether a circle in world coordinates intersects the view
+    public boolean isVisible(double worldX, double worldY, double radius) {
+        return worldX + radius >= x && worldX - radius <= x + viewWidth / zoom
+                && worldY + radius >= y && worldY - radius <= y + viewHeight / zoom;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public double getViewWidth() {
+        return viewWidth;
+    }
+
+    public double getViewHeight() {
+        return viewHeight;
+    }
+
+    // Increases on every change of position, zoom or view size
+    public long getVersion() {
+        return version;
+    }
+
+    private static double clampZoom(double zoom) {
+        return Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+// Renders the galaxy onto two canvases instead of one node per shape: the orbits are drawn onto
+// a background canvas, one dashed strokeOval per orbit, only when the camera moves or a star explodes;
+// the stars and planets are redrawn in a single pass every pulse. No per-planet properties or listeners
+// exist, so the cost is one fillOval per visible planet; systems outside the camera view are skipped.
+public class CanvasGalaxyRenderer implements GalaxyRenderer {
+    private static final byte STROKE_NONE = 0;
+    private static final byte STROKE_ATTACKER = 1;
+    private static final byte STROKE_DEFENDER = 2;
+    // Orbits are drawn as this many dots of this size, like the node renderer's dotted circles
+    private static final int ORBIT_DOTS = 60;
+    private static final double ORBIT_DOT_SIZE = 2;
+
+    private final Canvas orbitCanvas;
+    private final Canvas galaxyCanvas;
+    private final Pane layer;
+    private GalaxySimulation simulation;
+    // Highlight state of every planet, indexed by PlanetStore index
+    private byte[] strokes = new byte[0];
+    // Camera version the orbit canvas was drawn for, -1 when it must be redrawn
+    private long orbitCameraVersion = -1;
+
+    public CanvasGalaxyRenderer(double width, double height) {
+        orbitCanvas = new Canvas(width, height);
+        galaxyCanvas = new Canvas(width, height);
+        layer = new Pane(orbitCanvas, galaxyCanvas);
+    }
+
+    @Override
+    public Node getView() {
+        return layer;
+    }
+
+    @Override
+    public void build(GalaxySimulation simulation) {
+        this.simulation = simulation;
+        strokes = new byte[simulation.getPlanetStore().size()];
+        orbitCameraVersion = -1;
+    }
+
+    private void drawOrbits(Camera camera) {
+        GraphicsContext gc = orbitCanvas.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, orbitCanvas.getWidth(), orbitCanvas.getHeight());
+        applyCamera(gc, camera);
+        gc.setStroke(Color.rgb(255, 255, 255, 0.3)); // Semi-transparent
+        gc.setLineWidth(ORBIT_DOT_SIZE);
+        for (Star star : simulation.getStars()) {
+            if (!camera.isVisible(star.x, star.y, star.systemRadius())) continue;
+            for (int orbit = 0; orbit < star.planetCount; orbit++) {
+                drawOrbitPath(gc, star, star.orbitDistance(orbit));
+            }
+        }
+        gc.setLineDashes();
+    }
+
+    private static void applyCamera(GraphicsContext gc, Camera camera) {
+        double zoom = camera.getZoom();
+        gc.setTransform(zoom, 0, 0, zoom, -camera.getX() * zoom, -camera.getY() * zoom);
+    }
+
+    private static void drawOrbitPath(GraphicsContext gc, Star star, int orbitDistance) {
+        // One dashed circle per orbit: ORBIT_DOTS short dashes evenly spaced along the circumference
+        double spacing = 2 * Math.PI * orbitDistance / ORBIT_DOTS;
+        gc.setLineDashes(ORBIT_DOT_SIZE, Math.max(0, spacing - ORBIT_DOT_SIZE));
+        gc.strokeOval(star.x - orbitDistance, star.y - orbitDistance, orbitDistance * 2, orbitDistance * 2);
+    }
+
+    @Override
+    public void render(double alpha, Camera camera) {
+        // Follow the size of the galaxy view
+        if (galaxyCanvas.getWidth() != camera.getViewWidth() || galaxyCanvas.getHeight() != camera.getViewHeight()) {
+            for (Canvas canvas : new Canvas[]{orbitCanvas, galaxyCanvas}) {
+                canvas.setWidth(camera.getViewWidth());
+                canvas.setHeight(camera.getViewHeight());
+            }
+            orbitCameraVersion = -1;
+        }
+        if (orbitCameraVersion != camera.getVersion()) {
+            orbitCameraVersion = camera.getVersion();
+            drawOrbits(camera);
+        }
+
+        GraphicsContext gc = galaxyCanvas.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, galaxyCanvas.getWidth(), galaxyCanvas.getHeight());
+        applyCamera(gc, camera);
+
+        PlanetStore planets = simulation.getPlanetStore();
+        CivilizationRegistry civilizations = simulation.getCivilizations();
+        for (Star star : simulation.getStars()) {
+            if (!camera.isVisible(star.x, star.y, star.systemRadius())) continue;
+
+            gc.setFill(GalaxyRenderer.starColor(star));
+            gc.fillOval(star.x - star.radius, star.y - star.radius, star.radius * 2, star.radius * 2);
+
+            for (int i = star.firstPlanet; i < star.firstPlanet + star.planetCount; i++) {
+                double radius = planets.radius[i];
+                double left = planets.getX(i, alpha) - radius;
+                double top = planets.getY(i, alpha) - radius;
+                Color fill = civilizations.get(planets.civId[i]).getColor();
+
+                gc.setFill(fill);
+                gc.fillOval(left, top, radius * 2, radius * 2);
+
+                // Strokes are centered on the outline like the Circle nodes of the node renderer
+                switch (strokes[i]) {
+                    case STROKE_ATTACKER -> {
+                        gc.setStroke(GalaxyRenderer.attackerStroke(fill));
+                        gc.setLineWidth(2);
+                    }
+                    case STROKE_DEFENDER -> {
+                        gc.setStroke(GalaxyRenderer.defenderStroke(fill));
+                        gc.setLineWidth(2);
+                    }
+                    default -> {
+                        gc.setStroke(Color.BLACK);
+                        gc.setLineWidth(1);
+                    }
+                }
+                gc.strokeOval(left, top, radius * 2, radius * 2);
+            }
+        }
+    }
+
+    @Override
+    public void highlightAttack(int attacker, int defender) {
+        strokes[attacker] = STROKE_ATTACKER;
+        strokes[defender] = STROKE_DEFENDER;
+    }
+
+    @Override
+    public void clearHighlight(int planet) {
+        strokes[planet] = STROKE_NONE;
+    }
+
+    @Override
+    public void removeStar(Star star) {
+        // Exploded stars are no longer in the simulation's star list; redraw the orbits without this one
+        orbitCameraVersion = -1;
+    }
+}
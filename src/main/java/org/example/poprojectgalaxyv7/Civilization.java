@@ -2,13 +2,12 @@ package org.example.poprojectgalaxyv7;
 
 import javafx.scene.paint.Color;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class Civilization {
     // ENCAPSULATION
     private Color color;
     private int powerPoints;
-    private static final Random random = new Random();
     private static final int MIN_POWER = 50;
     private static final int MAX_POWER = 100;
     public int idCivilization;
@@ -16,12 +15,23 @@ public class Civilization {
     /**
      * Create a new civilization with the specified color and random power points.
      *
-     * @param color The color representing this civilization
+     * @param color          The color representing this civilization
+     * @param idCivilization The id assigned by the CivilizationRegistry
+     * @param random         The stream the power points are drawn from
      */
-    public Civilization(Color color) {
+    public Civilization(Color color, int idCivilization, RandomGenerator random) {
         this.color = color;
-        this.powerPoints = generateRandomPower();
-        this.idCivilization = random.nextInt(1000);
+        this.powerPoints = generateRandomPower(random);
+        this.idCivilization = idCivilization;
+    }
+
+    /**
+     * Recreate a civilization with known power points, e.g. from a snapshot.
+     */
+    Civilization(Color color, int idCivilization, int powerPoints) {
+        this.color = color;
+        this.powerPoints = powerPoints;
+        this.idCivilization = idCivilization;
     }
 
     /**
@@ -29,7 +39,7 @@ public class Civilization {
      *
      * @return A random integer between MIN_POWER and MAX_POWER
      */
-    private int generateRandomPower() {
+    private int generateRandomPower(RandomGenerator random) {
         return random.nextInt(MAX_POWER - MIN_POWER + 1) + MIN_POWER;
     }
 
@@ -42,6 +52,18 @@ public class Civilization {
         return color;
     }
 
+    /**
+     * Get the color of this civilization packed as an ARGB int.
+     *
+     * @return The civilization's color as 0xAARRGGBB
+     */
+    public int getColorArgb() {
+        return ((int) (color.getOpacity() * 255) << 24)
+                | ((int) (color.getRed() * 255) << 16)
+                | ((int) (color.getGreen() * 255) << 8)
+                | (int) (color.getBlue() * 255);
+    }
+
     /**
      * Set the color of this civilization (used when conquered).
      *
@@ -70,28 +92,28 @@ public class Civilization {
     }
 
     /**
-     * Attack another civilization. If this civilization is stronger,
-     * the target will adopt this civilization's color.
+     * Attack another civilization. If this civilization is at least as strong,
+     * the attacked planet is conquered and joins this civilization.
      *
      * @param target The civilization being attacked
      * @return true if the attack was successful, false otherwise
      */
     // POLYMORPHISM
     public boolean attack(Civilization target) {
-        if (this.powerPoints >= target.powerPoints) {
-            target.setColor(this.color);
-            target.idCivilization = this.idCivilization;
-            return true;
-        }
-        return false;
+        return this.powerPoints >= target.powerPoints;
     }
 
+    /**
+     * Absorb the power of a conquered planet's former civilization, capped at 1000.
+     * The power is stored once per civilization, so every planet of this civilization sees the new value.
+     *
+     * @param civilization The civilization the planet was conquered from
+     */
     public void summonCivilization(Civilization civilization) {
         if ((this.powerPoints > 1000) || (this.powerPoints + civilization.powerPoints > 1000)) {
             this.powerPoints = 1000;
         } else {
             this.powerPoints += civilization.powerPoints-30;
-            civilization.powerPoints = this.powerPoints;
         }
     }
 
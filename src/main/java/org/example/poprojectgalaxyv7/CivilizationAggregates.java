@@ -0,0 +1,104 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.Arrays;
+
+// Planet count of every civilization, kept current by GalaxySimulation as planets are created, conquered and
+// destroyed, plus the set of civilizations that still own planets. Civilization ids are dense, so the
+// counts are a plain int array indexed by id; the live set is an unordered id array with a position index,
+// so adding and removing a civilization is O(1) and readers visit only the live civilizations instead of
+// scanning every planet. Power needs no copy here: it is a single field of each Civilization already.
+public class CivilizationAggregates {
+    private static final int NONE = -1;
+
+    //ENCAPSULATION
+    private int[] planetCounts = new int[0];
+    private int[] liveCivilizations = new int[0];
+    private int[] livePosition = new int[0]; // Index into liveCivilizations, NONE when the civilization has no planets
+    private int liveCount = 0;
+
+    void addPlanet(int civId) {
+        ensureCapacity(civId + 1);
+        if (planetCounts[civId]++ == 0) {
+            livePosition[civId] = liveCount;
+            liveCivilizations[liveCount++] = civId;
+        }
+    }
+
+    void removePlanet(int civId) {
+        if (--planetCounts[civId] == 0) {
+            // Move the last live civilization into the freed slot
+            int position = livePosition[civId];
+            int last = liveCivilizations[--liveCount];
+            liveCivilizations[position] = last;
+            livePosition[last] = position;
+            livePosition[civId] = NONE;
+        }
+    }
+
+    void movePlanet(int fromCivilization, int toCivilization) {
+        addPlanet(toCivilization);
+        removePlanet(fromCivilization);
+    }
+
+    public int getPlanetCount(int civId) {
+        return civId < planetCounts.length ? planetCounts[civId] : 0;
+    }
+
+    // Civilizations with at least one planet
+    public int getLiveCivilizationCount() {
+        return liveCount;
+    }
+
+    /**
+     * Copy the ids of the civilizations that own planets, in ascending id order.
+     *
+     * @param result Receives the ids, at least getLiveCivilizationCount() long
+     * @return The number of ids written
+     */
+    public int copyLiveCivilizations(int[] result) {
+        System.arraycopy(liveCivilizations, 0, result, 0, liveCount);
+        Arrays.sort(result, 0, liveCount);
+        return liveCount;
+    }
+
+    /**
+     * Find the civilizations with the most planets, largest first.
+     *
+     * @param result Receives up to result.length civilization ids
+     * @return The number of ids written
+     */
+    public int topCivilizations(int[] result) {
+        int found = 0;
+        for (int i = 0; i < liveCount; i++) {
+            int civId = liveCivilizations[i];
+            int count = planetCounts[civId];
+
+            // Insertion into the small sorted result array, ties keep the lower id first
+            int position = Math.min(found, result.length);
+            while (position > 0 && ranksBefore(civId, count, result[position - 1])) {
+                position--;
+            }
+            if (position >= result.length) continue;
+            int last = Math.min(found, result.length - 1);
+            System.arraycopy(result, position, result, position + 1, last - position);
+            result[position] = civId;
+            found = Math.min(found + 1, result.length);
+        }
+        return found;
+    }
+
+    private boolean ranksBefore(int civId, int count, int other) {
+        int otherCount = planetCounts[other];
+        return count > otherCount || (count == otherCount && civId < other);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= planetCounts.length) return;
+        int newCapacity = Math.max(capacity, Math.max(64, planetCounts.length * 2));
+        int oldCapacity = planetCounts.length;
+        planetCounts = Arrays.copyOf(planetCounts, newCapacity);
+        liveCivilizations = Arrays.copyOf(liveCivilizations, newCapacity);
+        livePosition = Arrays.copyOf(livePosition, newCapacity);
+        Arrays.fill(livePosition, oldCapacity, newCapacity, NONE);
+    }
+}
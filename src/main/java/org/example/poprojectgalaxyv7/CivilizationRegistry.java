@@ -0,0 +1,44 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Holds every civilization of a simulation exactly once. Civilizations get dense ids (their index here),
+// and planets refer to their civilization through PlanetStore.civId, so a conquest only rewrites one int
+// and a power change is a single field write instead of a scan over all planets.
+public class CivilizationRegistry {
+    // AGGREGATION
+    private final List<Civilization> civilizations = new ArrayList<>();
+
+    /**
+     * Create and register a new civilization with random power points.
+     *
+     * @param color  The color representing the civilization
+     * @param random The stream the power points are drawn from
+     * @return The new civilization
+     */
+    public Civilization create(Color color, RandomGenerator random) {
+        Civilization civilization = new Civilization(color, civilizations.size(), random);
+        civilizations.add(civilization);
+        return civilization;
+    }
+
+    // Register a civilization with known power points under the next id, used when restoring a snapshot
+    Civilization restore(Color color, int powerPoints) {
+        Civilization civilization = new Civilization(color, civilizations.size(), powerPoints);
+        civilizations.add(civilization);
+        return civilization;
+    }
+
+    public Civilization get(int idCivilization) {
+        return civilizations.get(idCivilization);
+    }
+
+    // Number of civilizations ever created, including ones that lost all their planets
+    public int size() {
+        return civilizations.size();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.poprojectgalaxyv7;
+
+// View-model behind the civilization table. Planet counts come from the simulation's CivilizationAggregates,
+// which the engine keeps current; the model only adds a dirty flag that tells the view whether anything
+// changed since it last refreshed, so the table is patched at most once per frame.
+public class CivilizationTableModel implements SimulationListener {
+    private CivilizationAggregates aggregates = new CivilizationAggregates();
+    private boolean dirty = false;
+
+    /**
+     * Follow a new simulation; its aggregates already count the planets it was created with.
+     */
+    public void reset(GalaxySimulation simulation) {
+        aggregates = simulation.getCivilizationAggregates();
+        dirty = true;
+    }
+
+    @Override
+    public void onPlanetConquered(int planet, int fromCivilization, int toCivilization) {
+        dirty = true;
+    }
+
+    @Override
+    public void onPlanetAttacked(int attacker, int defender, boolean success) {
+        // The attacker's power may have changed even when the attack failed
+        dirty = true;
+    }
+
+    @Override
+    public void onStarExploded(Star star) {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void clearDirty() {
+        dirty = false;
+    }
+
+    public int getPlanetCount(int idCivilization) {
+        return aggregates.getPlanetCount(idCivilization);
+    }
+
+    public int getCivilizationCount() {
+        return aggregates.getLiveCivilizationCount();
+    }
+
+    /**
+     * Find the civilizations with the most planets, largest first.
+     *
+     * @param result Receives up to result.length civilization ids
+     * @return The number of ids written
+     */
+    public int topCivilizations(int[] result) {
+        return aggregates.topCivilizations(result);
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.poprojectgalaxyv7;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary alternative to SimulationOutput. The output is a directory holding one file per column
+// (the same columns as the CSV, all little-endian int32, colors packed as ARGB) plus a header file
+// with the schema, the row count and the tick count. Each column collects its values in a buffer; the buffers
+// fill up together and are then written to their files, followed by the header with the new row count. So
+// recording a tick is a few memory stores and an occasional plain write, readers can map a column and use it
+// directly, and a run that is killed still reads back every row written before its last flush.
+public class ColumnarSimulationOutput implements SimulationRecorder {
+    public static final String FILE_EXTENSION = ".gcol";
+    public static final String HEADER_FILE = "header.bin";
+    public static final String[] COLUMNS = {
+            "Tick", "RemainingStars", "CivilizationID", "Color", "PlanetCount", "Power"
+    };
+
+    private static final int MAGIC = 0x4C4F4347; // "GCOL" when stored little-endian
+    private static final int VERSION = 1;
+    private static final byte TYPE_INT32 = 1;
+    // Bytes collected per column before they are written to its file
+    private static final int WRITE_BUFFER_BYTES = 64 << 10;
+
+    //ENCAPSULATION
+    private final Path directory;
+    private final IntColumn[] columns = new IntColumn[COLUMNS.length];
+    private long rowCount = 0;
+    private int tickCounter = 0;
+    private boolean isActive = true;
+    private int[] liveCivilizations = new int[0];
+
+    /**
+     * @param directory The output directory, created if missing; existing column files are replaced
+     */
+    public ColumnarSimulationOutput(String directory) {
+        this.directory = Path.of(directory);
+        try {
+            Files.createDirectories(this.directory);
+            for (int i = 0; i < COLUMNS.length; i++) {
+                columns[i] = new IntColumn(this.directory.resolve(COLUMNS[i] + ".col"));
+            }
+            writeHeader();
+        } catch (IOException e) {
+            System.err.println("Error initializing columnar output: " + e.getMessage());
+            closeColumns();
+            isActive = false;
+        }
+    }
+
+    @Override
+    public void recordTick(GalaxySimulation simulation) {
+        if (!isActive) return;
+
+        tickCounter++;
+
+        CivilizationRegistry civilizations = simulation.getCivilizations();
+        CivilizationAggregates aggregates = simulation.getCivilizationAggregates();
+        if (liveCivilizations.length < aggregates.getLiveCivilizationCount()) {
+            liveCivilizations = new int[civilizations.size()];
+        }
+        int civilizationCount = aggregates.copyLiveCivilizations(liveCivilizations);
+        int remainingStars = simulation.getStars().size();
+
+        try {
+            for (int i = 0; i < civilizationCount; i++) {
+                if (columns[0].isFull()) {
+                    flush();
+                }
+                int civId = liveCivilizations[i];
+                Civilization civilization = civilizations.get(civId);
+                columns[0].append(tickCounter);
+                columns[1].append(remainingStars);
+                columns[2].append(civId);
+                columns[3].append(civilization.getColorArgb());
+                columns[4].append(aggregates.getPlanetCount(civId));
+                columns[5].append(civilization.getPowerPoints());
+                rowCount++;
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing to columnar output: " + e.getMessage());
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!isActive) return;
+        isActive = false;
+        try {
+            writeHeader();
+        } catch (IOException e) {
+            System.err.println("Error writing columnar output header: " + e.getMessage());
+        }
+        closeColumns();
+    }
+
+    // Write the full buffers, then the header, so the header never counts rows that are not on disk yet
+    private void flush() throws IOException {
+        for (IntColumn column : columns) {
+            column.writeBuffer();
+        }
+        writeHeader();
+    }
+
+    /**
+     * Map one column of a columnar output directory for reading.
+     *
+     * @param directory The output directory
+     * @param column    One of COLUMNS
+     * @return The column values, one int per row recorded in the header
+     */
+    public static IntBuffer readColumn(Path directory, String column) throws IOException {
+        long rowCount = readRowCount(directory);
+        try (FileChannel channel = FileChannel.open(directory.resolve(column + ".col"), StandardOpenOption.READ)) {
+            // Anything past the header's rows, e.g. from an interrupted run, is not part of the output
+            long bytes = Math.min(channel.size(), rowCount * Integer.BYTES);
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+        }
+    }
+
+    /**
+     * Read the number of rows of a columnar output directory from its header.
+     */
+    public static long readRowCount(Path directory) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES + Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(directory.resolve(HEADER_FILE), StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) break;
+            }
+        }
+        header.flip();
+        if (header.remaining() < header.capacity() || header.getInt() != MAGIC) {
+            throw new IOException("Not a columnar output header: " + directory.resolve(HEADER_FILE));
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported columnar output version " + version);
+        }
+        return header.getLong();
+    }
+
+    // Header layout: magic, version, row count (long), tick count, column count,
+    // then per column the type and the UTF-8 name prefixed by its length
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(rowCount).putInt(tickCounter).putInt(COLUMNS.length);
+        for (String column : COLUMNS) {
+            byte[] name = column.getBytes(StandardCharsets.UTF_8);
+            header.put(TYPE_INT32).put((byte) name.length).put(name);
+        }
+        header.flip();
+        // Rewritten in place, the header always has the same length
+        try (FileChannel channel = FileChannel.open(directory.resolve(HEADER_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    private void closeColumns() {
+        for (IntColumn column : columns) {
+            if (column == null) continue;
+            try {
+                column.close();
+            } catch (IOException e) {
+                System.err.println("Error closing columnar output: " + e.getMessage());
+            }
+        }
+    }
+
+    // One int32 column file, appended through a buffer that the output writes out whenever it is full
+    private static class IntColumn {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        IntColumn(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void append(int value) {
+            buffer.putInt(value);
+        }
+
+        boolean isFull() {
+            return !buffer.hasRemaining();
+        }
+
+        void close() throws IOException {
+            try (channel) {
+                writeBuffer();
+                // The only sync, once the column is complete
+                channel.force(false);
+            }
+        }
+
+        void writeBuffer() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
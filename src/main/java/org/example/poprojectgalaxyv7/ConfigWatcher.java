@@ -0,0 +1,99 @@
+package org.example.poprojectgalaxyv7;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Watches a configuration file and reloads it whenever it is saved. The directory watch runs on its own
+// daemon thread; editors often write a file in several steps, so events are collected until the file has
+// been quiet for DEBOUNCE_MILLIS and then the file is parsed once. The callback runs on the watcher thread,
+// GUI code has to hand the new configuration over to the FX thread itself.
+public class ConfigWatcher implements AutoCloseable {
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    //ENCAPSULATION
+    private final Path file;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final Consumer<InputConfig> onReload;
+
+    /**
+     * Start watching a configuration file.
+     *
+     * @param file     The CSV file, its directory is watched
+     * @param onReload Receives every successfully parsed version of the file
+     */
+    public ConfigWatcher(Path file, Consumer<InputConfig> onReload) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onReload = onReload;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+
+        thread = new Thread(this::watch, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = collectChanges(key);
+                // Wait until the writes stop
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= collectChanges(key);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    // True if any of the key's events is about the watched file
+    private boolean collectChanges(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        InputConfig config = new InputConfig();
+        if (config.loadFromCsv(file.toString())) {
+            try {
+                onReload.accept(config);
+            } catch (RuntimeException e) {
+                System.err.println("Error applying reloaded configuration: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Error closing configuration watcher: " + e.getMessage());
+        }
+    }
+}
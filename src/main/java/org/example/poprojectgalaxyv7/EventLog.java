@@ -0,0 +1,172 @@
+package org.example.poprojectgalaxyv7;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Append-only log of everything that changes ownership or power during a run: every attack with its
+// outcome, the new power of the winner after a conquest, and every star explosion. The log starts from a
+// snapshot of the simulation, so EventReplay can rebuild the state at any tick from the snapshot plus the
+// events instead of simulating again.
+//
+// Events are packed into a byte array. Every value is a varint (7 bits per byte), and most of them are
+// deltas against something the replay already knows, so a typical attack takes 4 to 6 bytes:
+//   type                 1 byte, one of ATTACK_REPELLED, PLANET_CONQUERED, STAR_EXPLODED
+//   tick                 ticks since the previous event
+//   ATTACK_REPELLED      attacker minus the previous attacker, defender minus attacker (both zigzag)
+//   PLANET_CONQUERED     like ATTACK_REPELLED, then the winner's new power minus its old power (zigzag)
+//   STAR_EXPLODED        star index
+public class EventLog implements SimulationListener {
+    public static final String FILE_EXTENSION = ".glog";
+
+    private static final int MAGIC = 0x474C4F47; // "GLOG"
+    private static final int VERSION = 1;
+    static final byte ATTACK_REPELLED = 0;
+    static final byte PLANET_CONQUERED = 1;
+    static final byte STAR_EXPLODED = 2;
+
+    //ENCAPSULATION
+    private final GalaxySimulation simulation; // null for a log read from a file
+    private final SimulationSnapshot start;
+    byte[] data = new byte[4096];
+    int length = 0;
+    private int eventCount = 0;
+    private long endTick;
+
+    // Delta bases, mirrored by EventReplay while decoding
+    private long lastTick;
+    private int lastAttacker = 0;
+    private final int[] powers;
+
+    /**
+     * Start a log at the current state of the simulation. Add it as a listener of the
+     * simulation to record the events from then on.
+     */
+    public EventLog(GalaxySimulation simulation) {
+        this.simulation = simulation;
+        this.start = simulation.snapshot();
+        this.lastTick = start.tickCount;
+        this.endTick = start.tickCount;
+        this.powers = start.civilizationPowers.clone();
+    }
+
+    private EventLog(SimulationSnapshot start) {
+        this.simulation = null;
+        this.start = start;
+        this.lastTick = start.tickCount;
+        this.endTick = start.tickCount;
+        this.powers = start.civilizationPowers.clone();
+    }
+
+    public SimulationSnapshot getStart() {
+        return start;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    // Encoded size of the events in bytes
+    public int getByteCount() {
+        return length;
+    }
+
+    /**
+     * The tick the log reaches: the simulation's current tick while recording,
+     * or the tick it was saved at for a log read from a file.
+     */
+    public long getEndTick() {
+        return simulation != null ? simulation.getTickCount() : endTick;
+    }
+
+    @Override
+    public void onPlanetAttacked(int attacker, int defender, boolean success) {
+        writeHeader(success ? PLANET_CONQUERED : ATTACK_REPELLED);
+        writeVarLong(zigzag(attacker - lastAttacker));
+        writeVarLong(zigzag(defender - attacker));
+        lastAttacker = attacker;
+
+        if (success) {
+            // The defender already belongs to the winner and the power is already merged
+            int civId = simulation.getPlanetStore().getCivId(defender);
+            int power = simulation.getCivilizations().get(civId).getPowerPoints();
+            writeVarLong(zigzag(power - powers[civId]));
+            powers[civId] = power;
+        }
+    }
+
+    @Override
+    public void onStarExploded(Star star) {
+        writeHeader(STAR_EXPLODED);
+        writeVarLong(star.index);
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            start.writeTo(out);
+            out.writeLong(getEndTick());
+            out.writeInt(eventCount);
+            out.writeInt(length);
+            out.write(data, 0, length);
+        }
+    }
+
+    public static EventLog read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an event log: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported event log version " + version + ": " + file);
+            }
+            EventLog log = new EventLog(SimulationSnapshot.readFrom(in, Files.size(file) - 2 * Integer.BYTES));
+            log.endTick = in.readLong();
+            log.eventCount = in.readInt();
+            log.length = in.readInt();
+            log.data = new byte[Math.max(1, log.length)];
+            in.readFully(log.data, 0, log.length);
+            return log;
+        }
+    }
+
+    private void writeHeader(byte type) {
+        long tick = simulation.getTickCount();
+        ensureCapacity(length + 1);
+        data[length++] = type;
+        writeVarLong(tick - lastTick);
+        lastTick = tick;
+        eventCount++;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(length + 10);
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    // Map signed deltas to small unsigned values: 0, -1, 1, -2, 2 ... become 0, 1, 2, 3, 4 ...
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+    }
+}
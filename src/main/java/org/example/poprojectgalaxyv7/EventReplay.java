@@ -0,0 +1,241 @@
+package org.example.poprojectgalaxyv7;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Rebuilds the state of a logged run at any tick from the log's start snapshot and its events. Ownership,
+// power and dead stars come from the events; planet positions are computed directly from the orbit angles,
+// so seeking costs one pass over the events instead of simulating every tick. Seeking forward continues from
+// the current tick, seeking backward starts over from the snapshot.
+public class EventReplay {
+    private final EventLog log;
+    private final SimulationSnapshot start;
+
+    // Star data indexed by star index, taken from the start snapshot
+    private final double[] starX;
+    private final double[] starY;
+    private final int[] firstPlanet;
+    private final int[] planetCount;
+    private final boolean[] starAlive;
+
+    //ENCAPSULATION
+    private PlanetStore planets;
+    private int[] powers;
+    private int remainingStars;
+    private long tick;
+
+    // Decoder state, the same delta bases EventLog used while encoding
+    private int position;
+    private int eventsApplied;
+    private long eventTick;
+    private int lastAttacker;
+
+    public EventReplay(EventLog log) {
+        this.log = log;
+        this.start = log.getStart();
+
+        int starSlots = 0;
+        for (int index : start.starIndex) {
+            starSlots = Math.max(starSlots, index + 1);
+        }
+        starX = new double[starSlots];
+        starY = new double[starSlots];
+        firstPlanet = new int[starSlots];
+        planetCount = new int[starSlots];
+        starAlive = new boolean[starSlots];
+        for (int i = 0; i < start.starIndex.length; i++) {
+            int index = start.starIndex[i];
+            starX[index] = start.starX[i];
+            starY[index] = start.starY[i];
+            firstPlanet[index] = start.firstPlanet[i];
+            planetCount[index] = start.planetCount[i];
+        }
+        rewind();
+    }
+
+    /**
+     * Move to the state the simulation had when its tick count was targetTick.
+     *
+     * @param targetTick Clamped between the start and the end of the log
+     */
+    public void seek(long targetTick) {
+        targetTick = Math.max(start.tickCount, Math.min(targetTick, log.getEndTick()));
+        if (targetTick < tick) {
+            rewind();
+        }
+
+        // Events logged during tick t are part of the state from tick t + 1 on
+        while (position < log.length) {
+            int eventStart = position;
+            byte type = log.data[position++];
+            long nextTick = eventTick + readVarLong();
+            if (nextTick >= targetTick) {
+                position = eventStart;
+                break;
+            }
+            eventTick = nextTick;
+            apply(type);
+        }
+
+        tick = targetTick;
+        updatePositions();
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getStartTick() {
+        return start.tickCount;
+    }
+
+    public long getEndTick() {
+        return log.getEndTick();
+    }
+
+    public int getEventsApplied() {
+        return eventsApplied;
+    }
+
+    // Planets at the current tick; only civId, alive state and position are replayed
+    public PlanetStore getPlanetStore() {
+        return planets;
+    }
+
+    public int getCivilizationCount() {
+        return powers.length;
+    }
+
+    public int getPowerPoints(int civId) {
+        return powers[civId];
+    }
+
+    public int getRemainingStars() {
+        return remainingStars;
+    }
+
+    public boolean isStarAlive(int starIndex) {
+        return starAlive[starIndex];
+    }
+
+    /**
+     * Count the live planets of every civilization, the counts GalaxySimulation keeps in its CivilizationAggregates.
+     *
+     * @param counts Receives the planet count per civilization id, at least getCivilizationCount() long
+     * @return The number of civilizations that own at least one planet
+     */
+    public int countPlanetsPerCivilization(int[] counts) {
+        Arrays.fill(counts, 0, powers.length, 0);
+        int civilizationCount = 0;
+        for (int planet = 0; planet < planets.size(); planet++) {
+            if (planets.isAlive(planet) && counts[planets.civId[planet]]++ == 0) {
+                civilizationCount++;
+            }
+        }
+        return civilizationCount;
+    }
+
+    private void rewind() {
+        planets = start.planets.copy();
+        powers = start.civilizationPowers.clone();
+        Arrays.fill(starAlive, false);
+        for (int index : start.starIndex) {
+            starAlive[index] = true;
+        }
+        remainingStars = start.starIndex.length;
+        tick = start.tickCount;
+        position = 0;
+        eventsApplied = 0;
+        eventTick = start.tickCount;
+        lastAttacker = 0;
+    }
+
+    private void apply(byte type) {
+        switch (type) {
+            case EventLog.ATTACK_REPELLED, EventLog.PLANET_CONQUERED -> {
+                int attacker = lastAttacker + (int) EventLog.unzigzag(readVarLong());
+                int defender = attacker + (int) EventLog.unzigzag(readVarLong());
+                lastAttacker = attacker;
+                if (type == EventLog.PLANET_CONQUERED) {
+                    int civId = planets.civId[attacker];
+                    planets.civId[defender] = civId;
+                    powers[civId] += (int) EventLog.unzigzag(readVarLong());
+                }
+            }
+            case EventLog.STAR_EXPLODED -> {
+                int star = (int) readVarLong();
+                for (int planet = firstPlanet[star]; planet < firstPlanet[star] + planetCount[star]; planet++) {
+                    planets.kill(planet);
+                }
+                starAlive[star] = false;
+                remainingStars--;
+            }
+            default -> throw new IllegalStateException("Unknown event type " + type + " at byte " + (position - 1));
+        }
+        eventsApplied++;
+    }
+
+    // Orbits advance by a fixed angle per tick, so the position at any tick follows from the start angle
+    private void updatePositions() {
+        long elapsed = tick - start.tickCount;
+        PlanetStore initial = start.planets;
+        for (int planet = 0; planet < planets.size(); planet++) {
+            if (!planets.isAlive(planet)) continue;
+            int star = planets.starIndex[planet];
+            double angle = initial.angle[planet] + elapsed * initial.speed[planet];
+            planets.angle[planet] = angle;
+            planets.x[planet] = starX[star] + planets.orbitDistance[planet] * Math.cos(angle);
+            planets.y[planet] = starY[star] + planets.orbitDistance[planet] * Math.sin(angle);
+            planets.previousX[planet] = planets.x[planet];
+            planets.previousY[planet] = planets.y[planet];
+        }
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = log.data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Post-mortem of a saved event log: prints the state at evenly spaced ticks.
+     * Usage: EventReplay <log.glog> [steps]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: EventReplay <log" + EventLog.FILE_EXTENSION + "> [steps]");
+            System.exit(1);
+        }
+        EventLog log = EventLog.read(Path.of(args[0]));
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        System.out.println(log.getEventCount() + " events in " + log.getByteCount() + " bytes, ticks "
+                + log.getStart().getTickCount() + " to " + log.getEndTick());
+
+        long startTime = System.nanoTime();
+        EventReplay replay = new EventReplay(log);
+        int[] counts = new int[replay.getCivilizationCount()];
+        long span = replay.getEndTick() - replay.getStartTick();
+        for (int step = 0; step <= steps; step++) {
+            replay.seek(replay.getStartTick() + span * step / Math.max(1, steps));
+            int civilizations = replay.countPlanetsPerCivilization(counts);
+            int strongest = -1;
+            for (int civId = 0; civId < counts.length; civId++) {
+                if (counts[civId] > 0 && (strongest == -1 || replay.getPowerPoints(civId) > replay.getPowerPoints(strongest))) {
+                    strongest = civId;
+                }
+            }
+            System.out.println("Tick " + replay.getTick() + ": " + replay.getRemainingStars() + " stars, "
+                    + civilizations + " civilizations"
+                    + (strongest >= 0 ? ", strongest " + strongest + " with power " + replay.getPowerPoints(strongest)
+                    + " on " + counts[strongest] + " planets" : ""));
+        }
+        System.out.println("Replayed in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.poprojectgalaxyv7;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Complete layout of a galaxy: every live star with its position, radius, orbit spacing and type, every planet
+// of those stars with its orbit, angle, speed and civilization, and the civilizations themselves. Unlike a
+// SimulationSnapshot it holds no random streams or counters, so a layout starts new runs on a fixed galaxy.
+//
+// The file is one little-endian block of arrays, read and written through a memory-mapped buffer:
+//   header   magic, version, star count, planet count, civilization count, 0, world width, world height
+//   doubles  star x, star y, planet orbit distance, planet angle, planet speed
+//   ints     star radius, orbit spacing, planets per star, planet radius, planet civilization,
+//            civilization color (ARGB), civilization power
+//   bytes    star type
+// Every array is copied with a single bulk get, so opening a layout costs about as much as reading the file.
+// The planets of star i follow those of star i - 1, like in PlanetStore.
+public class GalaxyLayout {
+    public static final String FILE_EXTENSION = ".glay";
+
+    private static final int MAGIC = 0x59414C47; // "GLAY" when stored little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES + 2 * Double.BYTES;
+
+    double worldWidth;
+    double worldHeight;
+
+    // Stars
+    double[] starX;
+    double[] starY;
+    int[] starRadius;
+    int[] orbitSpacing;
+    int[] planetsPerStar;
+    byte[] starTypes; // SimulationSnapshot.STABLE_STAR or VOLATILE_STAR
+
+    // Planets, grouped by star
+    double[] orbitDistance;
+    double[] angle;
+    double[] speed;
+    int[] planetRadius;
+    int[] planetCivilization;
+
+    // Civilizations, indexed by id
+    int[] civilizationColors;
+    int[] civilizationPowers;
+
+    GalaxyLayout(int starCount, int planetCount, int civilizationCount) {
+        starX = new double[starCount];
+        starY = new double[starCount];
+        starRadius = new int[starCount];
+        orbitSpacing = new int[starCount];
+        planetsPerStar = new int[starCount];
+        starTypes = new byte[starCount];
+        orbitDistance = new double[planetCount];
+        angle = new double[planetCount];
+        speed = new double[planetCount];
+        planetRadius = new int[planetCount];
+        planetCivilization = new int[planetCount];
+        civilizationColors = new int[civilizationCount];
+        civilizationPowers = new int[civilizationCount];
+    }
+
+    public int getStarCount() {
+        return starX.length;
+    }
+
+    public int getPlanetCount() {
+        return angle.length;
+    }
+
+    public int getCivilizationCount() {
+        return civilizationColors.length;
+    }
+
+    public int getMinPlanetsPerStar() {
+        int min = Integer.MAX_VALUE;
+        for (int count : planetsPerStar) {
+            min = Math.min(min, count);
+        }
+        return planetsPerStar.length == 0 ? 0 : min;
+    }
+
+    public int getMaxPlanetsPerStar() {
+        int max = 0;
+        for (int count : planetsPerStar) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * Write the layout to a file, replacing it if it exists.
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(getStarCount()).putInt(getPlanetCount()).putInt(getCivilizationCount()).putInt(0)
+                    .putDouble(worldWidth).putDouble(worldHeight);
+
+            for (double[] column : new double[][]{starX, starY, orbitDistance, angle, speed}) {
+                buffer.asDoubleBuffer().put(column);
+                buffer.position(buffer.position() + column.length * Double.BYTES);
+            }
+            for (int[] column : new int[][]{starRadius, orbitSpacing, planetsPerStar, planetRadius,
+                    planetCivilization, civilizationColors, civilizationPowers}) {
+                buffer.asIntBuffer().put(column);
+                buffer.position(buffer.position() + column.length * Integer.BYTES);
+            }
+            buffer.put(starTypes);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Map a layout file and copy its arrays.
+     */
+    public static GalaxyLayout read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a galaxy layout: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a galaxy layout: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported galaxy layout version " + version + ": " + file);
+            }
+            int starCount = buffer.getInt();
+            int planetCount = buffer.getInt();
+            int civilizationCount = buffer.getInt();
+            buffer.getInt();
+            if (starCount < 0 || planetCount < 0 || civilizationCount < 0) {
+                throw new IOException("Corrupt galaxy layout: " + file);
+            }
+
+            // Check the counts against the file before allocating arrays for them
+            long expectedSize = fileSize(starCount, planetCount, civilizationCount);
+            if (channel.size() != expectedSize) {
+                throw new IOException("Galaxy layout has " + channel.size() + " bytes, expected "
+                        + expectedSize + ": " + file);
+            }
+            GalaxyLayout layout = new GalaxyLayout(starCount, planetCount, civilizationCount);
+            layout.worldWidth = buffer.getDouble();
+            layout.worldHeight = buffer.getDouble();
+
+            for (double[] column : new double[][]{layout.starX, layout.starY, layout.orbitDistance, layout.angle,
+                    layout.speed}) {
+                buffer.asDoubleBuffer().get(column);
+                buffer.position(buffer.position() + column.length * Double.BYTES);
+            }
+            for (int[] column : new int[][]{layout.starRadius, layout.orbitSpacing, layout.planetsPerStar,
+                    layout.planetRadius, layout.planetCivilization, layout.civilizationColors,
+                    layout.civilizationPowers}) {
+                buffer.asIntBuffer().get(column);
+                buffer.position(buffer.position() + column.length * Integer.BYTES);
+            }
+            buffer.get(layout.starTypes);
+            layout.validate(file);
+            return layout;
+        }
+    }
+
+    // The counts must add up and refer to existing civilizations, otherwise building the galaxy would fail later
+    private void validate(Path file) throws IOException {
+        long planets = 0;
+        for (int count : planetsPerStar) {
+            if (count < 0) {
+                throw new IOException("Corrupt galaxy layout, negative planet count: " + file);
+            }
+            planets += count;
+        }
+        if (planets != getPlanetCount()) {
+            throw new IOException("Corrupt galaxy layout, stars own " + planets + " of " + getPlanetCount()
+                    + " planets: " + file);
+        }
+        for (int civId : planetCivilization) {
+            if (civId < 0 || civId >= getCivilizationCount()) {
+                throw new IOException("Corrupt galaxy layout, unknown civilization " + civId + ": " + file);
+            }
+        }
+    }
+
+    private long fileSize() {
+        return fileSize(getStarCount(), getPlanetCount(), getCivilizationCount());
+    }
+
+    private static long fileSize(long stars, long planets, long civilizations) {
+        return HEADER_BYTES
+                + (2 * stars + 3 * planets) * Double.BYTES
+                + (3 * stars + 2 * planets + 2 * civilizations) * Integer.BYTES
+                + stars;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.random.RandomGenerator;
+
+// Splittable random stream owned by one simulation. Uses the SplitMix64 algorithm of java.util.SplittableRandom:
+// split() derives an independent child stream, so every star system and phase can get its own stream and
+// draws never contend across threads. Unlike SplittableRandom the two state words are accessible,
+// so a stream can be saved and restored exactly.
+public class GalaxyRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma; // Always odd
+
+    public GalaxyRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    // A stream seeded from the current time, for runs that do not need to be reproduced
+    public GalaxyRandom() {
+        this(mix64(System.nanoTime()) ^ mix64(System.currentTimeMillis()));
+    }
+
+    private GalaxyRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Create a child stream. The child's values are independent of this stream's later values,
+     * and splitting advances this stream, so the same sequence of splits always gives the same children.
+     */
+    public GalaxyRandom split() {
+        return new GalaxyRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    // The two state words, for saving the stream
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getGamma() {
+        return gamma;
+    }
+
+    // Recreate a stream saved through getSeed() and getGamma()
+    public static GalaxyRandom restore(long seed, long gamma) {
+        return new GalaxyRandom(seed, gamma | 1L);
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        // Gammas with too few bit transitions give poorly mixed streams
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return (transitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
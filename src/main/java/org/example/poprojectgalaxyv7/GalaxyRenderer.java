@@ -0,0 +1,57 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+
+// INTERFACE
+// Draws the stars, orbits and planets of a GalaxySimulation. Gui places the view below its overlays
+// (power labels, explosion particles) and calls render() once per pulse after ticking the simulation.
+// The view is as large as the galaxy view on screen; renderers apply the camera themselves.
+public interface GalaxyRenderer {
+
+    /**
+     * @return The node holding everything this renderer draws
+     */
+    Node getView();
+
+    /**
+     * Create the visual state for a freshly created simulation.
+     */
+    void build(GalaxySimulation simulation);
+
+    /**
+     * Bring the view up to date with the planet positions and civilization colors.
+     * Only star systems visible through the camera are drawn or updated.
+     *
+     * @param alpha  Where to draw planets between their previous (0) and current (1) tick position
+     * @param camera The part of the galaxy to show
+     */
+    void render(double alpha, Camera camera);
+
+    /**
+     * Outline the planets of an attack until clearHighlight() is called for each of them.
+     */
+    void highlightAttack(int attacker, int defender);
+
+    // Remove the outline of one planet
+    void clearHighlight(int planet);
+
+    /**
+     * Stop drawing a star that exploded, together with its planets.
+     */
+    void removeStar(Star star);
+
+    static Color starColor(Star star) {
+        return star instanceof VolitileStar ? Color.ORANGE : Color.YELLOW;
+    }
+
+    // Outline of an attacking planet, chosen to stand out from the planet's own color
+    static Color attackerStroke(Color fill) {
+        return fill == Color.RED ? Color.DARKRED : Color.RED;
+    }
+
+    // Outline of a defending planet, chosen to stand out from the planet's own color
+    static Color defenderStroke(Color fill) {
+        return fill == Color.WHITE ? Color.GRAY : Color.WHITE;
+    }
+}
@@ -0,0 +1,788 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.paint.Color;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+// Headless simulation engine: owns the stars, planets and civilizations and advances them one tick at a time.
+// It never touches the scene graph, so it can run without a Stage (tests, batch jobs) or be rendered by Gui.
+public class GalaxySimulation implements SimulationConfig {
+    // Number of ticks between two interaction rounds
+    public static final int INTERACTION_INTERVAL = 45;
+
+    // Root of the simulation's random streams; every consumer gets its own split so draws never interleave
+    private final GalaxyRandom random;
+    // Star positions and types
+    private final GalaxyRandom placementRandom;
+    // Interaction chance and attack direction rolls
+    private final GalaxyRandom interactionRandom;
+
+    // AGGREGATION
+    private final List<Star> stars = new ArrayList<>();
+    private final PlanetStore planets = new PlanetStore();
+    // Planets refer to their civilization through PlanetStore.civId
+    private final CivilizationRegistry civilizations = new CivilizationRegistry();
+    // Planets per civilization, updated on every creation, conquest and explosion
+    private final CivilizationAggregates aggregates = new CivilizationAggregates();
+    private int livePlanetCount = 0;
+    private final List<SimulationListener> listeners = new ArrayList<>();
+    private final SimulationMetrics metrics = new SimulationMetrics();
+
+    // Interaction tuning, can change between ticks
+    private int interactionChance = civilizationInteractionChance; // % chance per close pair and round
+    private int currentInteractionRange = interactionRange;
+
+    // Cells are as wide as the largest possible interaction distance, so only neighbouring cells can interact
+    private SpatialGrid planetGrid = new SpatialGrid(2 * maxPlanetRadius + interactionRange);
+
+    private final int starsCount;
+    private final int minPlanetsPerStar;
+    private final int maxPlanetsPerStar;
+    private long tickCount = 0;
+    private double worldWidth = GALAXY_VIEW_WIDTH;
+    private double worldHeight = SCENE_HEIGHT;
+    // Planets are moved by their precomputed rotation and snapped to the exact trig position every this many ticks
+    private int orbitResyncInterval = ORBIT_RESYNC_INTERVAL;
+
+    // Star systems are split across this pool when parallelism is above 1, otherwise ticks run on the caller thread
+    private int parallelism = DEFAULT_PARALLELISM;
+    private ForkJoinPool pool;
+
+    // Print placement progress while creating the galaxy; batch runs turn this off
+    private boolean verbose = true;
+
+    public GalaxySimulation(int starsCount, int minPlanetsPerStar, int maxPlanetsPerStar) {
+        this(starsCount, minPlanetsPerStar, maxPlanetsPerStar, new GalaxyRandom());
+    }
+
+    /**
+     * @param seed Seed of every random stream of the simulation; the same seed and parameters give the same run
+     */
+    public GalaxySimulation(int starsCount, int minPlanetsPerStar, int maxPlanetsPerStar, long seed) {
+        this(starsCount, minPlanetsPerStar, maxPlanetsPerStar, new GalaxyRandom(seed));
+    }
+
+    private GalaxySimulation(int starsCount, int minPlanetsPerStar, int maxPlanetsPerStar, GalaxyRandom random) {
+        this.starsCount = starsCount;
+        this.minPlanetsPerStar = minPlanetsPerStar;
+        this.maxPlanetsPerStar = maxPlanetsPerStar;
+        this.random = random;
+        this.placementRandom = random.split();
+        this.interactionRandom = random.split();
+    }
+
+    // Continue a run from a snapshot; listeners and parallelism are not part of the snapshot
+    private GalaxySimulation(SimulationSnapshot snapshot) {
+        this.starsCount = snapshot.starsCount;
+        this.minPlanetsPerStar = snapshot.minPlanetsPerStar;
+        this.maxPlanetsPerStar = snapshot.maxPlanetsPerStar;
+        this.tickCount = snapshot.tickCount;
+        this.orbitResyncInterval = snapshot.orbitResyncInterval;
+        this.interactionChance = snapshot.interactionChance;
+        this.currentInteractionRange = snapshot.interactionRange;
+        this.planetGrid = new SpatialGrid(2 * maxPlanetRadius + currentInteractionRange);
+        this.worldWidth = snapshot.worldWidth;
+        this.worldHeight = snapshot.worldHeight;
+        long[] state = snapshot.randomState;
+        this.random = GalaxyRandom.restore(state[0], state[1]);
+        this.placementRandom = GalaxyRandom.restore(state[2], state[3]);
+        this.interactionRandom = GalaxyRandom.restore(state[4], state[5]);
+
+        for (int civId = 0; civId < snapshot.civilizationColors.length; civId++) {
+            civilizations.restore(snapshot.civilizationColors[civId], snapshot.civilizationPowers[civId]);
+        }
+
+        PlanetStore saved = snapshot.planets;
+        for (int planet = 0; planet < saved.size(); planet++) {
+            planets.restore(saved.angle[planet], saved.speed[planet], saved.orbitDistance[planet], saved.x[planet],
+                    saved.y[planet], saved.previousX[planet], saved.previousY[planet], saved.radius[planet],
+                    saved.starIndex[planet], saved.civId[planet]);
+            if (planets.isAlive(planet)) {
+                planetGrid.insert(planet, planets.x[planet], planets.y[planet]);
+                aggregates.addPlanet(planets.civId[planet]);
+                livePlanetCount++;
+            }
+        }
+
+        for (int i = 0; i < snapshot.starTypes.length; i++) {
+            GalaxyRandom starRandom = GalaxyRandom.restore(snapshot.starSeed[i], snapshot.starGamma[i]);
+            Star star;
+            if (snapshot.starTypes[i] == SimulationSnapshot.VOLATILE_STAR) {
+                star = new VolitileStar(snapshot.starX[i], snapshot.starY[i], snapshot.starRadius[i], starRandom);
+            } else {
+                star = new StableStar(snapshot.starX[i], snapshot.starY[i], snapshot.starRadius[i], starRandom);
+            }
+            star.orbitSpacing = snapshot.orbitSpacing[i];
+            star.explosionPoints = snapshot.explosionPoints[i];
+            star.idStar = snapshot.idStar[i];
+            star.index = snapshot.starIndex[i];
+            star.firstPlanet = snapshot.firstPlanet[i];
+            star.planetCount = snapshot.planetCount[i];
+            // The constructor drew a random id and explosion points, rewind the stream to the saved state
+            star.random = GalaxyRandom.restore(snapshot.starSeed[i], snapshot.starGamma[i]);
+            stars.add(star);
+        }
+    }
+
+    /**
+     * Recreate a simulation from a snapshot. Ticking it gives the same results as ticking
+     * the simulation the snapshot was taken from.
+     */
+    public static GalaxySimulation restore(SimulationSnapshot snapshot) {
+        return new GalaxySimulation(snapshot);
+    }
+
+    /**
+     * Copy the complete state of the simulation. Call it between ticks; it only copies arrays,
+     * so the snapshot can be written to disk on another thread while the simulation keeps running.
+     */
+    public SimulationSnapshot snapshot() {
+        SimulationSnapshot snapshot = new SimulationSnapshot();
+        snapshot.starsCount = starsCount;
+        snapshot.minPlanetsPerStar = minPlanetsPerStar;
+        snapshot.maxPlanetsPerStar = maxPlanetsPerStar;
+        snapshot.tickCount = tickCount;
+        snapshot.orbitResyncInterval = orbitResyncInterval;
+        snapshot.interactionChance = interactionChance;
+        snapshot.interactionRange = currentInteractionRange;
+        snapshot.worldWidth = worldWidth;
+        snapshot.worldHeight = worldHeight;
+        GalaxyRandom[] streams = {random, placementRandom, interactionRandom};
+        for (int i = 0; i < streams.length; i++) {
+            snapshot.randomState[2 * i] = streams[i].getSeed();
+            snapshot.randomState[2 * i + 1] = streams[i].getGamma();
+        }
+
+        snapshot.allocateStars(stars.size());
+        for (int i = 0; i < stars.size(); i++) {
+            Star star = stars.get(i);
+            snapshot.starTypes[i] = star instanceof VolitileStar ? SimulationSnapshot.VOLATILE_STAR : SimulationSnapshot.STABLE_STAR;
+            snapshot.starX[i] = star.x;
+            snapshot.starY[i] = star.y;
+            snapshot.starRadius[i] = star.radius;
+            snapshot.orbitSpacing[i] = star.orbitSpacing;
+            snapshot.explosionPoints[i] = star.explosionPoints;
+            snapshot.idStar[i] = star.idStar;
+            snapshot.starIndex[i] = star.index;
+            snapshot.firstPlanet[i] = star.firstPlanet;
+            snapshot.planetCount[i] = star.planetCount;
+            snapshot.starSeed[i] = star.random.getSeed();
+            snapshot.starGamma[i] = star.random.getGamma();
+        }
+
+        snapshot.planets = planets.copy();
+
+        snapshot.civilizationColors = new Color[civilizations.size()];
+        snapshot.civilizationPowers = new int[civilizations.size()];
+        for (int civId = 0; civId < civilizations.size(); civId++) {
+            Civilization civilization = civilizations.get(civId);
+            snapshot.civilizationColors[civId] = civilization.getColor();
+            snapshot.civilizationPowers[civId] = civilization.getPowerPoints();
+        }
+        return snapshot;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public void addListener(SimulationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SimulationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public List<Star> getStars() {
+        return stars;
+    }
+
+    public PlanetStore getPlanetStore() {
+        return planets;
+    }
+
+    public CivilizationRegistry getCivilizations() {
+        return civilizations;
+    }
+
+    // Civilization that currently owns the given planet
+    public Civilization getCivilization(int planet) {
+        return civilizations.get(planets.civId[planet]);
+    }
+
+    public int getLivePlanetCount() {
+        return livePlanetCount;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    // Planet counts and the live civilizations, maintained incrementally
+    public CivilizationAggregates getCivilizationAggregates() {
+        return aggregates;
+    }
+
+    // Tick phase timings and event counters, always recorded
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getInteractionChance() {
+        return interactionChance;
+    }
+
+    /**
+     * Set the chance that two planets within interaction range fight in an interaction round.
+     *
+     * @param interactionChance Percent, from 0 to 100
+     */
+    public void setInteractionChance(int interactionChance) {
+        if (interactionChance < 0 || interactionChance > 100) {
+            throw new IllegalArgumentException("Interaction chance must be between 0 and 100: " + interactionChance);
+        }
+        this.interactionChance = interactionChance;
+    }
+
+    public int getInteractionRange() {
+        return currentInteractionRange;
+    }
+
+    /**
+     * Set how far apart two planets may be, beyond their radii, to interact. Call it between ticks;
+     * the spatial grid is rebuilt with cells matching the new range.
+     *
+     * @param interactionRange Distance in world units, at least 0
+     */
+    public void setInteractionRange(int interactionRange) {
+        if (interactionRange < 0) {
+            throw new IllegalArgumentException("Interaction range must be at least 0: " + interactionRange);
+        }
+        if (interactionRange == currentInteractionRange) return;
+        currentInteractionRange = interactionRange;
+
+        planetGrid = new SpatialGrid(2 * maxPlanetRadius + interactionRange);
+        for (int planet = 0; planet < planets.size(); planet++) {
+            if (planets.isAlive(planet)) {
+                planetGrid.insert(planet, planets.x[planet], planets.y[planet]);
+            }
+        }
+    }
+
+    public int getOrbitResyncInterval() {
+        return orbitResyncInterval;
+    }
+
+    /**
+     * Set how often planet positions are recomputed with trig instead of the rotation recurrence.
+     * The position error grows by roughly 1e-10 pixels per tick in between,
+     * so lower values only matter for very long runs; 1 computes every tick exactly.
+     *
+     * @param orbitResyncInterval Ticks between exact positions, at least 1
+     */
+    public void setOrbitResyncInterval(int orbitResyncInterval) {
+        if (orbitResyncInterval < 1) {
+            throw new IllegalArgumentException("Orbit resync interval must be at least 1: " + orbitResyncInterval);
+        }
+        this.orbitResyncInterval = orbitResyncInterval;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set how many threads advance star systems during a tick. 1 runs everything on the calling thread.
+     * Per-star work uses no randomness, so the result is the same for every parallelism level.
+     *
+     * @param parallelism Number of worker threads, at least 1
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        if (parallelism == this.parallelism) return;
+
+        shutdown();
+        this.parallelism = parallelism;
+        if (parallelism > 1) {
+            pool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    // Release the worker threads of the parallel tick mode
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        parallelism = 1;
+    }
+
+    /**
+     * Advance the simulation by one tick: move the planets and, every INTERACTION_INTERVAL ticks,
+     * run an interaction round followed by star explosions.
+     */
+    public void tick() {
+        metrics.countTick();
+        long phaseStart = System.nanoTime();
+        updatePlanetPositions();
+        metrics.recordPhase(SimulationMetrics.ORBIT_UPDATE, phaseStart);
+
+        if (tickCount % INTERACTION_INTERVAL == 0) {
+            phaseStart = System.nanoTime();
+            processCivilizationInteractions();
+            metrics.recordPhase(SimulationMetrics.INTERACTION_ROUND, phaseStart);
+
+            phaseStart = System.nanoTime();
+            processStarExplosion();
+            metrics.recordPhase(SimulationMetrics.EXPLOSION_PROCESSING, phaseStart);
+
+            metrics.countInteractionRound(livePlanetCount, aggregates.getLiveCivilizationCount());
+
+            for (SimulationListener listener : listeners) {
+                listener.onInteractionRound(this);
+            }
+        }
+
+        tickCount++;
+    }
+
+    /**
+     * Advance the simulation by the given number of ticks.
+     *
+     * @param ticks Number of ticks to run
+     */
+    public void step(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    public void createGalaxy() {
+        long startTime = System.nanoTime();
+
+        // Calculate approximate area per star system on the screen
+        double availableArea = (GALAXY_VIEW_WIDTH - 2 * screenBorderPadding) * (SCENE_HEIGHT - 2 * screenBorderPadding);
+        double areaPerStar = availableArea / starsCount;
+        double avgStarSystemRadius = Math.sqrt(areaPerStar * STAR_PACKING_DENSITY / Math.PI);
+        // A single system must still fit between the top and bottom of the screen
+        avgStarSystemRadius = Math.min(avgStarSystemRadius, SCENE_HEIGHT / 2.0 - screenBorderPadding);
+
+        if (verbose) {
+            System.out.println("Approximate radius per star system: " + avgStarSystemRadius);
+        }
+
+        int[] wantedPlanets = new int[starsCount];
+        for (int i = 0; i < starsCount; i++) {
+            wantedPlanets[i] = placementRandom.nextInt(minPlanetsPerStar, maxPlanetsPerStar + 1);
+        }
+
+        int[] starRadii = new int[starsCount];
+        int[] planetCounts = new int[starsCount];
+        int[] orbitSpacings = new int[starsCount];
+        double[] systemRadii = new double[starsCount];
+        double[] xs = new double[starsCount];
+        double[] ys = new double[starsCount];
+        double smallestSystemRadius = calculateMaxOrbitRadiusForStar(minStarRadius, minPlanetsPerStar, minOrbitSpacing);
+        double growth = 1;
+
+        while (true) {
+            // Size every star system: its planet count, reduced until the system fits the average radius
+            double systemArea = 0;
+            for (int i = 0; i < starsCount; i++) {
+                int starRadius = maxStarRadius;
+                int planetsPerStar = wantedPlanets[i];
+                int orbitSpacing = baseOrbitSpacing;
+
+                while (calculateMaxOrbitRadiusForStar(starRadius, planetsPerStar, orbitSpacing) > avgStarSystemRadius) {
+                    if (planetsPerStar > minPlanetsPerStar) {
+                        planetsPerStar--;
+                    } else if (orbitSpacing > minOrbitSpacing) {
+                        orbitSpacing -= 5;
+                    } else if (starRadius > minStarRadius) {
+                        starRadius -= 5;
+                    } else {
+                        break; // Can't reduce any further, the galaxy grows instead
+                    }
+                }
+
+                starRadii[i] = starRadius;
+                planetCounts[i] = planetsPerStar;
+                orbitSpacings[i] = orbitSpacing;
+                systemRadii[i] = calculateMaxOrbitRadiusForStar(starRadius, planetsPerStar, orbitSpacing);
+                systemArea += Math.PI * systemRadii[i] * systemRadii[i];
+            }
+
+            // The galaxy covers the screen, or a larger area with the same shape when the systems do not fit on it
+            double scale = Math.max(1, Math.sqrt(systemArea / STAR_PACKING_DENSITY / availableArea)) * growth;
+            worldWidth = GALAXY_VIEW_WIDTH * scale;
+            worldHeight = SCENE_HEIGHT * scale;
+
+            // Place the systems so that no two orbits overlap
+            int placed = new PoissonDiskSampler(worldWidth, worldHeight, screenBorderPadding, starSystemGap)
+                    .sample(systemRadii, xs, ys, placementRandom);
+            if (placed == starsCount) break;
+
+            if (scale <= 1 && avgStarSystemRadius > smallestSystemRadius) {
+                // Keep the galaxy on the screen as long as its systems can still be made smaller
+                avgStarSystemRadius *= 0.9;
+            } else {
+                // Ran out of room, retry on a larger area
+                growth *= 1.2;
+            }
+        }
+
+        for (int i = 0; i < starsCount; i++) {
+            // Create a Star object for tracking - randomly either Volatile or Stable
+            Star star;
+            if (placementRandom.nextBoolean()) {
+                star = new VolitileStar(xs[i], ys[i], starRadii[i], random.split());
+            } else {
+                star = new StableStar(xs[i], ys[i], starRadii[i], random.split());
+            }
+            star.orbitSpacing = orbitSpacings[i];
+            star.index = i;
+            stars.add(star);
+
+            // Add planets for this star
+            createPlanetsForStar(star, planetCounts[i]);
+        }
+
+        if (verbose) {
+            System.out.printf("Placed %d star systems with %d planets on %.0f x %.0f in %.1f ms%n", stars.size(),
+                    planets.size(), worldWidth, worldHeight, (System.nanoTime() - startTime) / 1e6);
+        }
+    }
+
+    /**
+     * Create the given star systems instead of placing random ones. Planets, civilizations and unspecified
+     * star types and powers are still drawn from the simulation's random streams.
+     *
+     * @param systems The star systems, in star index order
+     */
+    public void createGalaxy(List<StarSystemDefinition> systems) {
+        double right = GALAXY_VIEW_WIDTH;
+        double bottom = SCENE_HEIGHT;
+        for (int i = 0; i < systems.size(); i++) {
+            StarSystemDefinition system = systems.get(i);
+            boolean volatileStar = switch (system.type()) {
+                case StarSystemDefinition.VOLATILE -> true;
+                case StarSystemDefinition.STABLE -> false;
+                default -> placementRandom.nextBoolean();
+            };
+            Star star = volatileStar
+                    ? new VolitileStar(system.x(), system.y(), system.radius(), random.split())
+                    : new StableStar(system.x(), system.y(), system.radius(), random.split());
+            star.orbitSpacing = baseOrbitSpacing;
+            star.index = i;
+            stars.add(star);
+            createPlanetsForStar(star, system.planetCount());
+
+            if (system.power() != StarSystemDefinition.RANDOM_POWER) {
+                for (int planet = star.firstPlanet; planet < star.firstPlanet + star.planetCount; planet++) {
+                    getCivilization(planet).setPowerPoints(system.power());
+                }
+            }
+
+            // The world covers every system, and at least the galaxy's share of the screen
+            right = Math.max(right, system.x() + star.systemRadius() + screenBorderPadding);
+            bottom = Math.max(bottom, system.y() + star.systemRadius() + screenBorderPadding);
+        }
+        worldWidth = right;
+        worldHeight = bottom;
+
+        if (verbose) {
+            System.out.printf("Created %d defined star systems with %d planets on %.0f x %.0f%n", stars.size(),
+                    planets.size(), worldWidth, worldHeight);
+        }
+    }
+
+    /**
+     * Create the galaxy of a layout file. Star ids and explosion points are drawn from the simulation's
+     * random streams, everything else comes from the layout.
+     */
+    public void createGalaxy(GalaxyLayout layout) {
+        long startTime = System.nanoTime();
+        for (int civId = 0; civId < layout.getCivilizationCount(); civId++) {
+            int argb = layout.civilizationColors[civId];
+            Color color = Color.rgb((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0);
+            civilizations.restore(color, layout.civilizationPowers[civId]);
+        }
+
+        planets.reserve(layout.getPlanetCount());
+        int planet = 0;
+        for (int i = 0; i < layout.getStarCount(); i++) {
+            Star star = layout.starTypes[i] == SimulationSnapshot.VOLATILE_STAR
+                    ? new VolitileStar(layout.starX[i], layout.starY[i], layout.starRadius[i], random.split())
+                    : new StableStar(layout.starX[i], layout.starY[i], layout.starRadius[i], random.split());
+            star.orbitSpacing = layout.orbitSpacing[i];
+            star.index = i;
+            star.firstPlanet = planets.size();
+            star.planetCount = layout.planetsPerStar[i];
+            stars.add(star);
+
+            for (int end = planet + star.planetCount; planet < end; planet++) {
+                int added = planets.add(i, star.x, star.y, layout.orbitDistance[planet], layout.angle[planet],
+                        layout.speed[planet], layout.planetRadius[planet], layout.planetCivilization[planet]);
+                planetGrid.insert(added, planets.x[added], planets.y[added]);
+                aggregates.addPlanet(layout.planetCivilization[planet]);
+            }
+        }
+        livePlanetCount = planets.size();
+        worldWidth = layout.worldWidth;
+        worldHeight = layout.worldHeight;
+
+        if (verbose) {
+            System.out.printf("Built %d star systems with %d planets from a layout in %.1f ms%n", stars.size(),
+                    planets.size(), (System.nanoTime() - startTime) / 1e6);
+        }
+    }
+
+    /**
+     * Copy the current layout: the live stars, their planets at their current angles and every civilization.
+     * Call it between ticks.
+     */
+    public GalaxyLayout exportLayout() {
+        int planetCount = 0;
+        for (Star star : stars) {
+            planetCount += star.planetCount;
+        }
+
+        GalaxyLayout layout = new GalaxyLayout(stars.size(), planetCount, civilizations.size());
+        layout.worldWidth = worldWidth;
+        layout.worldHeight = worldHeight;
+        int planet = 0;
+        for (int i = 0; i < stars.size(); i++) {
+            Star star = stars.get(i);
+            layout.starX[i] = star.x;
+            layout.starY[i] = star.y;
+            layout.starRadius[i] = star.radius;
+            layout.orbitSpacing[i] = star.orbitSpacing;
+            layout.planetsPerStar[i] = star.planetCount;
+            layout.starTypes[i] = star instanceof VolitileStar ? SimulationSnapshot.VOLATILE_STAR : SimulationSnapshot.STABLE_STAR;
+
+            // The planets of a star are contiguous in both stores
+            int count = star.planetCount;
+            System.arraycopy(planets.orbitDistance, star.firstPlanet, layout.orbitDistance, planet, count);
+            System.arraycopy(planets.angle, star.firstPlanet, layout.angle, planet, count);
+            System.arraycopy(planets.speed, star.firstPlanet, layout.speed, planet, count);
+            System.arraycopy(planets.radius, star.firstPlanet, layout.planetRadius, planet, count);
+            System.arraycopy(planets.civId, star.firstPlanet, layout.planetCivilization, planet, count);
+            planet += count;
+        }
+
+        for (int civId = 0; civId < civilizations.size(); civId++) {
+            Civilization civilization = civilizations.get(civId);
+            layout.civilizationColors[civId] = civilization.getColorArgb();
+            layout.civilizationPowers[civId] = civilization.getPowerPoints();
+        }
+        return layout;
+    }
+
+    // Size of the area the stars were placed in; at least the galaxy's share of the screen
+    public double getWorldWidth() {
+        return worldWidth;
+    }
+
+    public double getWorldHeight() {
+        return worldHeight;
+    }
+
+    public static int calculateMaxOrbitRadiusForStar(int starRadius, int planetCount, int orbitSpacing) {
+        // Calculate the maximum orbit radius for a star
+        // First orbit is now at a consistent distance: starRadius + orbitSpacing
+        return starRadius + (planetCount * orbitSpacing) + maxPlanetRadius;
+    }
+
+    private void createPlanetsForStar(Star star, int planetCount) {
+        star.firstPlanet = planets.size();
+        star.planetCount = planetCount;
+
+        for (int j = 0; j < planetCount; j++) {
+            // All planets use the consistently spaced orbits
+            int orbitDistance = star.orbitDistance(j);
+
+            // Planet radius - scaled based on orbit position
+            // Outer planets can be larger than inner planets
+            int maxSize = Math.min(maxPlanetRadius, star.orbitSpacing / 2);
+            int planetRadius = star.random.nextInt(minPlanetRadius, maxSize);
+
+            // Calculate speed based on distance from star - farther planets move slower
+            // This follows Kepler's laws more closely
+            double baseFactor = 0.015;
+            double distanceFactor = (double) (j + 1) / planetCount; // 0.2 for the first planet in the 5-planet system, 1.0 for last
+            double orbitSpeed = baseFactor * (1 - 0.7 * distanceFactor); // Slow down outer planets more
+
+            double initialAngle = star.random.nextDouble() * 2 * Math.PI;
+
+            // Generate a random color for the planet's civilization
+            Color planetColor = Color.color(star.random.nextDouble(), star.random.nextDouble(), star.random.nextDouble());
+
+            // Create a civilization for this planet
+            Civilization civilization = civilizations.create(planetColor, star.random);
+            aggregates.addPlanet(civilization.idCivilization);
+
+            // Add a planet to the store
+            int planet = planets.add(star.index, star.x, star.y, orbitDistance, initialAngle, orbitSpeed,
+                    planetRadius, civilization.idCivilization);
+            livePlanetCount++;
+
+            planetGrid.insert(planet, planets.x[planet], planets.y[planet]);
+        }
+    }
+
+    // Package-private so the phases can be benchmarked on their own
+    void updatePlanetPositions() {
+        // Each star moves its own contiguous range of planets, so star systems can advance in parallel
+        if (tickCount % orbitResyncInterval == 0) {
+            forEachStar(star -> planets.resync(star.firstPlanet, star.firstPlanet + star.planetCount, star.x, star.y));
+        } else {
+            forEachStar(star -> planets.advance(star.firstPlanet, star.firstPlanet + star.planetCount, star.x, star.y));
+        }
+
+        // The grid is shared between all stars, update it on this thread
+        for (Star star : stars) {
+            for (int planet = star.firstPlanet; planet < star.firstPlanet + star.planetCount; planet++) {
+                planetGrid.move(planet, planets.x[planet], planets.y[planet]);
+            }
+        }
+    }
+
+    // Run the action for every star, split across the pool in parallel mode
+    private void forEachStar(Consumer<Star> action) {
+        if (pool == null || stars.size() < 2) {
+            for (Star star : stars) {
+                action.accept(star);
+            }
+            return;
+        }
+        // A few tasks per worker keeps the load balanced when star systems have different planet counts
+        int threshold = Math.max(1, stars.size() / (parallelism * 4));
+        pool.invoke(new StarRangeTask(stars, 0, stars.size(), threshold, action));
+    }
+
+    void processCivilizationInteractions() {
+        // Only pairs in neighbouring grid cells can be within interaction distance
+        planetGrid.forEachCandidatePair(this::processInteraction);
+    }
+
+    private void processInteraction(int planet1, int planet2) {
+        if (planets.civId[planet1] == planets.civId[planet2]) return;
+
+        // Compare squared distances to avoid the square root
+        double dx = planets.x[planet1] - planets.x[planet2];
+        double dy = planets.y[planet1] - planets.y[planet2];
+        double interactionDistance = planets.radius[planet1] + planets.radius[planet2] + currentInteractionRange;
+
+        // If planets are close and random chance hits, they interact
+        if (dx * dx + dy * dy <= interactionDistance * interactionDistance
+                && interactionRandom.nextInt(100) < interactionChance) {
+            // Determine if civ1 attacks civ2 or vice versa (random)
+            boolean civ1Attacks = interactionRandom.nextBoolean();
+
+            int attacker = civ1Attacks ? planet1 : planet2;
+            int defender = civ1Attacks ? planet2 : planet1;
+            Civilization attackerCivilization = getCivilization(attacker);
+            Civilization defenderCivilization = getCivilization(defender);
+
+            // Process the attack
+            boolean attackSuccess = attackerCivilization.attack(defenderCivilization);
+
+            // The conquered planet joins the attacker, who then summons the power of the defeated civilization
+            if (attackSuccess) {
+                planets.civId[defender] = attackerCivilization.idCivilization;
+                aggregates.movePlanet(defenderCivilization.idCivilization, attackerCivilization.idCivilization);
+                attackerCivilization.summonCivilization(defenderCivilization);
+
+                for (SimulationListener listener : listeners) {
+                    listener.onPlanetConquered(defender, defenderCivilization.idCivilization,
+                            attackerCivilization.idCivilization);
+                }
+            }
+
+            metrics.countAttack(attackSuccess);
+            for (SimulationListener listener : listeners) {
+                listener.onPlanetAttacked(attacker, defender, attackSuccess);
+            }
+        }
+    }
+
+    //For star explosion, check if explosion points >= 100 and increment points for volatile stars
+    void processStarExplosion() {
+        // First, increment explosion points for all volatile stars
+        forEachStar(Star::incrementExplosionPoints);
+
+        // Then check for any stars that can explode
+        List<Star> starsToExplode = new ArrayList<>();
+        for (Star star : stars) {
+            if (star.canExplode()) {
+                starsToExplode.add(star);
+            }
+        }
+
+        // Explode stars that reached the threshold
+        for (Star star : starsToExplode) {
+            explodeStar(star);
+        }
+    }
+
+    private void explodeStar(Star star) {
+        // Mark all planets associated with this star as dead and remove them from the grid
+        for (int planet = star.firstPlanet; planet < star.firstPlanet + star.planetCount; planet++) {
+            planets.kill(planet);
+            planetGrid.remove(planet);
+            aggregates.removePlanet(planets.civId[planet]);
+        }
+        livePlanetCount -= star.planetCount;
+
+        // Reset the star's explosion points and remove it from the star list
+        star.explosionPoints = 1;
+        stars.remove(star);
+        metrics.countExplosion();
+
+        for (SimulationListener listener : listeners) {
+            listener.onStarExploded(star);
+        }
+    }
+
+    // Fork-join task applying an action to the stars in [from, to)
+    private static class StarRangeTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only live inside one ForkJoinPool.invoke and are never serialized
+        private final transient List<Star> stars;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final transient Consumer<Star> action;
+
+        StarRangeTask(List<Star> stars, int from, int to, int threshold, Consumer<Star> action) {
+            this.stars = stars;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    action.accept(stars.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StarRangeTask(stars, from, middle, threshold, action),
+                    new StarRangeTask(stars, middle, to, threshold, action));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.example.poprojectgalaxyv7;
     
 import javafx.animation.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -12,18 +13,18 @@ import javafx.scene.control.Tooltip;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.function.IntConsumer;
 //INHERITANCE
-public class Gui extends Application implements SimulationConfig {
+public class Gui extends Application implements SimulationConfig, SimulationListener {
 
     private VBox createParameterSlider(String name, int min, int max, int initialValue, javafx.util.Callback<Number, Void> updateCallback) {
         VBox container = new VBox(5);
@@ -57,28 +58,64 @@ public class Gui extends Application implements SimulationConfig {
         return container;
     }
 
-    private final Random random = new Random();
+    // Cosmetic randomness for explosion particles, separate from the simulation's streams
+    private final GalaxyRandom random = new GalaxyRandom();
 
-    // Organize stars and planets for animation
-    private final List<Star> stars = new ArrayList<>();
-    private final List<Planet> arrayPlanet = new ArrayList<>();
+    // Headless engine holding the stars and planets, Gui only renders its state
+    private GalaxySimulation simulation;
+    // Draws the stars and planets of the simulation, either as nodes or onto a canvas
+    private GalaxyRenderer renderer = new NodeGalaxyRenderer();
 
     // Mutable simulation parameters
     private int starsCount = DEFAULT_STARS_COUNT;
     private int maxPlanetsPerStar = DEFAULT_MAX_PLANETS;
     private int minPlanetsPerStar = DEFAULT_MIN_PLANETS;
     private int simulationSpeed = DEFAULT_SIMULATION_SPEED;
-
-    private final HashMap<Circle, Label> powerLabels = new HashMap<>();
+    private int interactionChance = civilizationInteractionChance;
+    private int interactionRange = SimulationConfig.interactionRange;
+    // Galaxy parameters that only a configuration file can set
+    private Long seed = null;
+    private List<StarSystemDefinition> starSystems = List.of();
+    // Sliders, moved when a configuration is applied
+    private VBox starsCountSlider;
+    private VBox minPlanetsSlider;
+    private VBox maxPlanetsSlider;
+    private VBox speedSlider;
+    private VBox interactionChanceSlider;
+    private VBox interactionRangeSlider;
+    // Reloads the configuration file when it is saved, null when no file is used
+    private ConfigWatcher configWatcher;
+
+    // Power values and attack highlights, expired per planet after powerDisplayDuration ticks
+    private final PowerLabelOverlay powerLabels = new PowerLabelOverlay(MAX_POWER_LABELS, powerDisplayDuration);
+    private final IntConsumer clearHighlight = planet -> renderer.clearHighlight(planet);
 
     // Root pane for galaxy display
     private Pane galaxyPane;
     private VBox colorTableContainer;
+    // Civilization table: counts are maintained by the model, the rows are created once and patched in place
+    private final CivilizationTableModel colorTableModel = new CivilizationTableModel();
+    private final List<CivilizationRow> colorTableRows = new ArrayList<>();
+    private final int[] shownCivilizations = new int[MAX_COLOR_TABLE_ROWS];
+    private Label moreCivilizationsLabel;
     private AnimationTimer timer;
+    // Runs simulation ticks at a fixed rate, independent of the display refresh rate
+    private final SimulationScheduler scheduler =
+            new SimulationScheduler(BASE_TICKS_PER_SECOND / DEFAULT_SIMULATION_SPEED, MAX_TICKS_PER_FRAME);
     private boolean isAnimationRunning = true;
+    // Part of the galaxy shown in the galaxy pane, moved by dragging and scrolling
+    private final Camera camera = new Camera(GALAXY_VIEW_WIDTH, SCENE_HEIGHT);
+    private double dragX;
+    private double dragY;
 
     // Simulation input/output handling
-    private SimulationOutput simulationOutput;
+    private SimulationRecorder simulationOutput;
+    // Streams tick aggregates to local dashboards, null if the port was taken
+    private TelemetryServer telemetry;
+    // Every attack and explosion since the current galaxy was created or loaded
+    private EventLog eventLog;
+    // Explosion particles, reused for the whole run
+    private final ParticleSystem particles = new ParticleSystem(MAX_EXPLOSION_PARTICLES, EXPLOSION_DURATION_MS);
     private FileChooser fileChooser = new FileChooser();
 
     @Override
@@ -91,6 +128,34 @@ public class Gui extends Application implements SimulationConfig {
         galaxyPane = new Pane();
         galaxyPane.setStyle("-fx-background-color: #000000;");
 
+        // Keep the galaxy inside its pane, it can be much larger than the screen
+        Rectangle galaxyClip = new Rectangle(GALAXY_VIEW_WIDTH, SCENE_HEIGHT);
+        galaxyPane.setClip(galaxyClip);
+        galaxyPane.widthProperty().addListener((observable, oldWidth, newWidth) -> {
+            galaxyClip.setWidth(newWidth.doubleValue());
+            camera.setViewSize(newWidth.doubleValue(), camera.getViewHeight());
+        });
+        galaxyPane.heightProperty().addListener((observable, oldHeight, newHeight) -> {
+            galaxyClip.setHeight(newHeight.doubleValue());
+            camera.setViewSize(camera.getViewWidth(), newHeight.doubleValue());
+        });
+
+        // Drag to pan, scroll to zoom around the mouse position
+        galaxyPane.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        galaxyPane.setOnMouseDragged(e -> {
+            camera.pan(e.getX() - dragX, e.getY() - dragY);
+            dragX = e.getX();
+            dragY = e.getY();
+            renderFrame();
+        });
+        galaxyPane.setOnScroll(e -> {
+            camera.zoomAt(Math.pow(1.1, e.getDeltaY() / 40), e.getX(), e.getY());
+            renderFrame();
+        });
+
         // Create the color table for the left side
         colorTableContainer = new VBox(10);
         colorTableContainer.setPadding(new Insets(20));
@@ -117,32 +182,46 @@ public class Gui extends Application implements SimulationConfig {
         slidersTitle.setPadding(new Insets(0, 0, 10, 0));
         slidersContainer.getChildren().add(slidersTitle);
 
-        // Create sliders for configuration
+        // Create sliders for configuration; they also follow reloaded configuration files
+        starsCountSlider = createParameterSlider("Stars Count", MIN_STARS_COUNT, MAX_STARS_COUNT, starsCount, value -> {
+            starsCount = (int) value;
+            return null;
+        });
+        minPlanetsSlider = createParameterSlider("Min Planets Per Star", MIN_PLANETS_LOWER_BOUND, maxPlanetsPerStar, minPlanetsPerStar, value -> {
+            minPlanetsPerStar = (int) value;
+            // Ensure max is never less than min
+            if (maxPlanetsPerStar < minPlanetsPerStar) {
+                maxPlanetsPerStar = minPlanetsPerStar;
+            }
+            return null;
+        });
+        maxPlanetsSlider = createParameterSlider("Max Planets Per Star", minPlanetsPerStar, MAX_PLANETS_UPPER_BOUND, maxPlanetsPerStar, value -> {
+            maxPlanetsPerStar = (int) value;
+            // Ensure min is never more than max
+            if (minPlanetsPerStar > maxPlanetsPerStar) {
+                minPlanetsPerStar = maxPlanetsPerStar;
+            }
+            return null;
+        });
+        speedSlider = createParameterSlider("Simulation Speed", MIN_SIMULATION_SPEED, MAX_SIMULATION_SPEED, simulationSpeed, value -> {
+            setSimulationSpeed((int) value);
+            return null;
+        });
+        interactionChanceSlider = createParameterSlider("Interaction Chance", 0, 100, interactionChance, value -> {
+            setInteractionChance((int) value);
+            return null;
+        });
+        interactionRangeSlider = createParameterSlider("Interaction Range", 0, InputConfig.MAX_INTERACTION_RANGE, interactionRange, value -> {
+            setInteractionRange((int) value);
+            return null;
+        });
         slidersContainer.getChildren().addAll(
-                createParameterSlider("Stars Count", MIN_STARS_COUNT, MAX_STARS_COUNT, starsCount, value -> {
-                    starsCount = (int) value;
-                    return null;
-                }),
-                createParameterSlider("Min Planets Per Star", MIN_PLANETS_LOWER_BOUND, maxPlanetsPerStar, minPlanetsPerStar, value -> {
-                    minPlanetsPerStar = (int) value;
-                    // Ensure max is never less than min
-                    if (maxPlanetsPerStar < minPlanetsPerStar) {
-                        maxPlanetsPerStar = minPlanetsPerStar;
-                    }
-                    return null;
-                }),
-                createParameterSlider("Max Planets Per Star", minPlanetsPerStar, MAX_PLANETS_UPPER_BOUND, maxPlanetsPerStar, value -> {
-                    maxPlanetsPerStar = (int) value;
-                    // Ensure min is never more than max
-                    if (minPlanetsPerStar > maxPlanetsPerStar) {
-                        minPlanetsPerStar = maxPlanetsPerStar;
-                    }
-                    return null;
-                }),
-                createParameterSlider("Simulation Speed", MIN_SIMULATION_SPEED, MAX_SIMULATION_SPEED, simulationSpeed, value -> {
-                    simulationSpeed = (int) value;
-                    return null;
-                })
+                starsCountSlider,
+                minPlanetsSlider,
+                maxPlanetsSlider,
+                speedSlider,
+                interactionChanceSlider,
+                interactionRangeSlider
         );
 
         // Create buttons for the bottom left corner (control buttons)
@@ -159,8 +238,11 @@ public class Gui extends Application implements SimulationConfig {
         // Toggle animation button (Stop/Continue)
         Button toggleAnimationButton = getButton();
 
+        // Render mode button (Node/Canvas)
+        Button renderModeButton = getRenderModeButton();
+
         // Add control buttons to the left container
-        controlButtonContainer.getChildren().addAll(resetButton, toggleAnimationButton);
+        controlButtonContainer.getChildren().addAll(resetButton, toggleAnimationButton, renderModeButton);
 
         // Create right panel for file operations
         VBox rightPanel = new VBox(20);
@@ -189,8 +271,41 @@ public class Gui extends Application implements SimulationConfig {
         setOutputButton.setPrefWidth(150);
         setOutputButton.setOnAction(e -> selectOutputFile(primaryStage));
 
+        // Snapshot buttons
+        Button saveSnapshotButton = new Button("Save Snapshot");
+        saveSnapshotButton.setStyle("-fx-background-color: #4a4a4a; -fx-text-fill: white; -fx-font-weight: bold;");
+        saveSnapshotButton.setPadding(new Insets(10, 20, 10, 20));
+        saveSnapshotButton.setPrefWidth(150);
+        saveSnapshotButton.setOnAction(e -> saveSnapshot(primaryStage));
+
+        Button loadSnapshotButton = new Button("Load Snapshot");
+        loadSnapshotButton.setStyle("-fx-background-color: #4a4a4a; -fx-text-fill: white; -fx-font-weight: bold;");
+        loadSnapshotButton.setPadding(new Insets(10, 20, 10, 20));
+        loadSnapshotButton.setPrefWidth(150);
+        loadSnapshotButton.setOnAction(e -> loadSnapshot(primaryStage));
+
+        Button saveEventLogButton = new Button("Save Event Log");
+        saveEventLogButton.setStyle("-fx-background-color: #4a4a4a; -fx-text-fill: white; -fx-font-weight: bold;");
+        saveEventLogButton.setPadding(new Insets(10, 20, 10, 20));
+        saveEventLogButton.setPrefWidth(150);
+        saveEventLogButton.setOnAction(e -> saveEventLog(primaryStage));
+
+        // Layout buttons
+        Button exportLayoutButton = new Button("Export Layout");
+        exportLayoutButton.setStyle("-fx-background-color: #4a4a4a; -fx-text-fill: white; -fx-font-weight: bold;");
+        exportLayoutButton.setPadding(new Insets(10, 20, 10, 20));
+        exportLayoutButton.setPrefWidth(150);
+        exportLayoutButton.setOnAction(e -> exportLayout(primaryStage));
+
+        Button importLayoutButton = new Button("Import Layout");
+        importLayoutButton.setStyle("-fx-background-color: #4a4a4a; -fx-text-fill: white; -fx-font-weight: bold;");
+        importLayoutButton.setPadding(new Insets(10, 20, 10, 20));
+        importLayoutButton.setPrefWidth(150);
+        importLayoutButton.setOnAction(e -> importLayout(primaryStage));
+
         // Add file buttons to the right panel
-        rightPanel.getChildren().addAll(fileOperationsTitle, loadConfigButton, setOutputButton);
+        rightPanel.getChildren().addAll(fileOperationsTitle, loadConfigButton, setOutputButton,
+                saveSnapshotButton, loadSnapshotButton, saveEventLogButton, exportLayoutButton, importLayoutButton);
 
         // Create a BorderPane to arrange elements properly in the left region
         BorderPane leftPane = new BorderPane();
@@ -213,12 +328,18 @@ public class Gui extends Application implements SimulationConfig {
         if (defaultConfig.exists()) {
             InputConfig config = new InputConfig();
             if (config.loadFromCsv(defaultConfig.getAbsolutePath())) {
-                starsCount = config.getStarsCount();
-                minPlanetsPerStar = config.getMinPlanetsPerStar();
-                maxPlanetsPerStar = config.getMaxPlanetsPerStar();
-                simulationSpeed = config.getSimulationSpeed();
-                System.out.println("Loaded default configuration from " + DEFAULT_GALAXY_CONFIG_FILE);
+                setGalaxyParameters(config);
+                setTunables(config);
             }
+            watchConfig(defaultConfig);
+        }
+
+        // Serve live telemetry for the whole session, whichever galaxy or output file is in use
+        try {
+            telemetry = new TelemetryServer(TELEMETRY_PORT, TELEMETRY_SAMPLE_INTERVAL_MS);
+            System.out.println("Streaming telemetry on http://localhost:" + telemetry.getPort() + TelemetryServer.PATH);
+        } catch (IOException e) {
+            System.err.println("Error starting telemetry server: " + e.getMessage());
         }
 
         // Create the galaxy
@@ -229,32 +350,26 @@ public class Gui extends Application implements SimulationConfig {
 
         // Animation timer for planet orbits
         timer = new AnimationTimer() {
-            private int frameCount = 0;
-            private int tickCounter = 0;
-
             @Override
             public void handle(long now) {
-                // Only update on specific frames based on simulation speed
-                tickCounter++;
-                if (tickCounter >= simulationSpeed) {
-                    updatePlanetPositions();
-
-                    // Process civilization interactions occasionally
-                    if (frameCount % 45 == 0) { // Every 45 frames
-                        processCivilizationInteractions();
-                        processStarExplosion(root);
-
-                        // Record simulation state to CSV
-                        if (simulationOutput != null) {
-                            simulationOutput.recordTick(stars);
-                        }
-                    }
-
-                    // Update power display durations
-                    updatePowerDisplays();
-
-                    frameCount++;
-                    tickCounter = 0;
+                // Run the ticks that became due since the last frame
+                int steps = scheduler.frame(now);
+                for (int i = 0; i < steps; i++) {
+                    // Interactions, explosions and CSV recording are reported back through the listener methods
+                    simulation.tick();
+
+                    // Hide the power labels and highlights that expire this tick
+                    powerLabels.advance(clearHighlight);
+                }
+
+                particles.update(now);
+                renderFrame();
+
+                // Patch the civilization table at most once per frame
+                if (colorTableModel.isDirty()) {
+                    long refreshStart = System.nanoTime();
+                    updateColorTable();
+                    simulation.getMetrics().recordPhase(SimulationMetrics.COLOR_TABLE_REFRESH, refreshStart);
                 }
             }
         };
@@ -278,7 +393,8 @@ public class Gui extends Application implements SimulationConfig {
                 toggleAnimationButton.setText("Continue");
                 isAnimationRunning = false;
             } else {
-                // Continue animation
+                // Continue animation, without catching up on the paused time
+                scheduler.reset();
                 timer.start();
                 toggleAnimationButton.setText("Stop");
                 isAnimationRunning = true;
@@ -287,6 +403,46 @@ public class Gui extends Application implements SimulationConfig {
         return toggleAnimationButton;
     }
 
+    private void renderFrame() {
+        // Draw the visible part of the galaxy, blending planet positions between the last two ticks
+        double alpha = scheduler.getAlpha();
+        renderer.render(alpha, camera);
+        powerLabels.updatePositions(simulation.getPlanetStore(), camera, alpha);
+    }
+
+    private void setSimulationSpeed(int simulationSpeed) {
+        this.simulationSpeed = simulationSpeed;
+        scheduler.setTicksPerSecond(BASE_TICKS_PER_SECOND / simulationSpeed);
+    }
+
+    private Button getRenderModeButton() {
+        Button renderModeButton = new Button("Canvas Mode");
+        renderModeButton.setStyle("-fx-background-color: #4a4a4a; -fx-text-fill: white; -fx-font-weight: bold;");
+        renderModeButton.setPadding(new Insets(10, 20, 10, 20));
+        renderModeButton.setOnAction(e -> {
+            if (renderer instanceof NodeGalaxyRenderer) {
+                // Draw everything onto a single canvas
+                setRenderer(new CanvasGalaxyRenderer(GALAXY_VIEW_WIDTH, SCENE_HEIGHT));
+                renderModeButton.setText("Node Mode");
+            } else {
+                // Back to one node per star and planet
+                setRenderer(new NodeGalaxyRenderer());
+                renderModeButton.setText("Canvas Mode");
+            }
+        });
+        return renderModeButton;
+    }
+
+    private void setRenderer(GalaxyRenderer newRenderer) {
+        // Swap the view in place, below the power labels and explosion particles
+        int index = galaxyPane.getChildren().indexOf(renderer.getView());
+        galaxyPane.getChildren().remove(renderer.getView());
+        renderer = newRenderer;
+        renderer.build(simulation);
+        galaxyPane.getChildren().add(Math.max(index, 0), renderer.getView());
+        renderFrame();
+    }
+
     private void loadConfigFromFile(Stage stage) {
         fileChooser.setTitle("Open Configuration File");
         fileChooser.getExtensionFilters().clear();
@@ -296,633 +452,464 @@ public class Gui extends Application implements SimulationConfig {
 
         File file = fileChooser.showOpenDialog(stage);
         if (file != null) {
-            System.out.println("Selected config file: " + file.getAbsolutePath());
             InputConfig config = new InputConfig();
             if (config.loadFromCsv(file.getAbsolutePath())) {
-                // Update simulation parameters
-                starsCount = config.getStarsCount();
-                minPlanetsPerStar = config.getMinPlanetsPerStar();
-                maxPlanetsPerStar = config.getMaxPlanetsPerStar();
-                simulationSpeed = config.getSimulationSpeed();
-
-                System.out.println("Applied configuration:\n" +
-                        "Stars Count: " + starsCount + "\n" +
-                        "Min Planets Per Star: " + minPlanetsPerStar + "\n" +
-                        "Max Planets Per Star: " + maxPlanetsPerStar + "\n" +
-                        "Simulation Speed: " + simulationSpeed);
-
-                // Reset galaxy with new configuration
-                resetGalaxy();
+                applyConfig(config, true);
+                // Follow later edits of the chosen file
+                watchConfig(file);
             } else {
                 System.err.println("Failed to load configuration from " + file.getAbsolutePath());
             }
         }
     }
 
-    private void selectOutputFile(Stage stage) {
-        fileChooser.setTitle("Set Output File");
-        fileChooser.getExtensionFilters().clear();
-        fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("CSV Files", "*.csv")
-        );
-
-        File file = fileChooser.showSaveDialog(stage);
-        if (file != null) {
-            // Create new output handler with selected file
-            simulationOutput = new SimulationOutput(file.getAbsolutePath());
+    /**
+     * Apply a loaded configuration. Speed and interaction tuning change the running simulation right away;
+     * a changed galaxy (stars, planets, seed or systems) needs a new galaxy.
+     *
+     * @param resetIfChanged Create the new galaxy now, otherwise it is created at the next reset
+     */
+    private void applyConfig(InputConfig config, boolean resetIfChanged) {
+        setTunables(config);
+        // A loaded snapshot may have brought other values than the sliders show
+        simulation.setInteractionChance(interactionChance);
+        simulation.setInteractionRange(interactionRange);
+
+        boolean changed = !sameGalaxy(config);
+        setGalaxyParameters(config);
+        if (changed && resetIfChanged) {
+            resetGalaxy();
         }
     }
 
-    private void resetGalaxy() {
-        // Clear all existing elements
-        galaxyPane.getChildren().clear();
-        stars.clear();
-        powerLabels.clear();
-        arrayPlanet.clear();
-
-        // Clear color table contents (except the title)
-        while (colorTableContainer.getChildren().size() > 1) {
-            colorTableContainer.getChildren().remove(1);
-        }
-
-        // Reset simulation output with a new file
-        simulationOutput = new SimulationOutput();
+    private void setGalaxyParameters(InputConfig config) {
+        setSliderValue(starsCountSlider, config.getStarsCount());
+        setSliderValue(minPlanetsSlider, config.getMinPlanetsPerStar());
+        setSliderValue(maxPlanetsSlider, config.getMaxPlanetsPerStar());
+        // The planet sliders adjust each other, so the configured values are set last
+        starsCount = config.getStarsCount();
+        minPlanetsPerStar = config.getMinPlanetsPerStar();
+        maxPlanetsPerStar = config.getMaxPlanetsPerStar();
+        seed = config.hasSeed() ? config.getSeed() : null;
+        starSystems = List.copyOf(config.getStarSystems());
+    }
 
-        // Create a new galaxy
-        createGalaxy();
+    private void setTunables(InputConfig config) {
+        // Moving a slider applies its value through the slider's callback
+        setSliderValue(speedSlider, config.getSimulationSpeed());
+        setSliderValue(interactionChanceSlider, config.getInteractionChance());
+        setSliderValue(interactionRangeSlider, config.getInteractionRange());
+        setSimulationSpeed(config.getSimulationSpeed());
+        setInteractionChance(config.getInteractionChance());
+        setInteractionRange(config.getInteractionRange());
     }
 
-    private void updateColorTable() {
-        // Make sure we only have the title remaining
-        while (colorTableContainer.getChildren().size() > 1) {
-            colorTableContainer.getChildren().remove(1);
+    private void setInteractionChance(int interactionChance) {
+        this.interactionChance = interactionChance;
+        if (simulation != null) {
+            simulation.setInteractionChance(interactionChance);
         }
+    }
 
-        // Create maps to count planets and track power by civilization color
-        HashMap<Color, Integer> civilizationCounts = new HashMap<>();
-        HashMap<Color, Integer> civilizationPower = new HashMap<>();
-
-        // Count planets and get power for each civilization color
-        for (Star star : stars) {
-            for (Planet planet : star.planets) {
-                Color civColor = planet.civilization.getColor();
-                civilizationCounts.put(civColor,
-                        civilizationCounts.getOrDefault(civColor, 0) + 1);
-
-                // Track the power points (we just need one value per civilization)
-                civilizationPower.put(civColor, planet.civilization.getPowerPoints());
-            }
+    private void setInteractionRange(int interactionRange) {
+        this.interactionRange = interactionRange;
+        if (simulation != null) {
+            simulation.setInteractionRange(interactionRange);
         }
+    }
 
-        // Add color entries to the table
-        int count = 0;
-        for (Color civColor : civilizationCounts.keySet()) {
-            HBox colorEntry = new HBox(10);
-            colorEntry.setAlignment(Pos.CENTER_LEFT);
-
-            // Create a circle with the civilization color
-            Circle colorSample = new Circle(8);
-            colorSample.setFill(civColor);
-            colorSample.setStroke(Color.WHITE);
-            colorSample.setStrokeWidth(1);
-
-            // Create a VBox to hold multiple labels for better formatting
-            VBox labelContainer = new VBox(1);
-
-            // Main civilization label with number
-            Label civilizationLabel = new Label("Civ " + (count + 1));
-            civilizationLabel.setTextFill(Color.WHITE);
-            civilizationLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
-
-            // Planets count
-            Label planetLabel = new Label("Planets: " + civilizationCounts.get(civColor));
-            planetLabel.setTextFill(Color.LIGHTGRAY);
-            planetLabel.setFont(Font.font("Arial", 10));
-
-            // Power points (highlighted)
-            Label powerLabel = new Label("Power: " + civilizationPower.get(civColor));
-            powerLabel.setTextFill(Color.LIGHTGRAY);
-            powerLabel.setFont(Font.font("Arial", 10));
-
-            labelContainer.getChildren().addAll(civilizationLabel, planetLabel, powerLabel);
-
-            // Add to the color entry
-            colorEntry.getChildren().addAll(colorSample, labelContainer);
-
-            // Add to the color table
-            colorTableContainer.getChildren().add(colorEntry);
+    // The slider of a createParameterSlider container
+    private static void setSliderValue(VBox parameterSlider, int value) {
+        ((Slider) parameterSlider.getChildren().get(1)).setValue(value);
+    }
 
+    // True if the configuration creates the galaxy the current parameters create
+    private boolean sameGalaxy(InputConfig config) {
+        return config.getStarsCount() == starsCount
+                && config.getMinPlanetsPerStar() == minPlanetsPerStar
+                && config.getMaxPlanetsPerStar() == maxPlanetsPerStar
+                && (config.hasSeed() ? seed != null && seed == config.getSeed() : seed == null)
+                && config.getStarSystems().equals(starSystems);
+    }
 
-            count++;
-            // Limit the number of civilizations shown to prevent UI overflow
-            if (count >= 4 && civilizationCounts.size() > 4) {
-                Label moreLabel = new Label("+" + (civilizationCounts.size() - 4) + " more civilizations");
-                moreLabel.setTextFill(Color.LIGHTGRAY);
-                moreLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
-                moreLabel.setPadding(new Insets(5, 0, 0, 0));
-                colorTableContainer.getChildren().add(moreLabel);
-                break;
-            }
+    private void watchConfig(File file) {
+        if (configWatcher != null) {
+            configWatcher.close();
+            configWatcher = null;
+        }
+        try {
+            // Parsed on the watcher thread, applied on the FX thread between ticks
+            configWatcher = new ConfigWatcher(file.toPath(), config -> Platform.runLater(() -> applyConfig(config, false)));
+        } catch (IOException e) {
+            System.err.println("Error watching configuration file: " + e.getMessage());
         }
     }
 
-    private void createGalaxy() {
-
-        // Calculate approximate area per star system
-        double availableArea = (SCENE_WIDTH - 2 * screenBorderPadding) * (SCENE_HEIGHT - 2 * screenBorderPadding);
-        double areaPerStar = availableArea / starsCount;
-        double avgStarSystemRadius = Math.sqrt(areaPerStar / Math.PI) * 0.8; // 80% of theoretical max
-
-        System.out.println("Approximate radius per star system: " + avgStarSystemRadius);
-
-        // Create stars with adaptive sizing
-        for (int i = 0; i < starsCount; i++) {
-            boolean placementSuccess = false;
-            int triesCount = 0;
-
-            // Start with ideal parameters
-            int starRadius = maxStarRadius;
-            int planetsPerStar = maxPlanetsPerStar;
-            int orbitSpacing = baseOrbitSpacing;
-
-            while (!placementSuccess && triesCount < maxTries) {
-                triesCount++;
-
-                // Calculate the max orbit radius for this star based on the number of planets
-                int maxOrbitRadius = calculateMaxOrbitRadiusForStar(starRadius, planetsPerStar, orbitSpacing);
-
-                // If the star system is too large, reduce parameters
-                if (maxOrbitRadius * 2 > avgStarSystemRadius * 2) {
-                    // Try reducing parameters to make the system smaller
-                    if (planetsPerStar > minPlanetsPerStar) {
-                        planetsPerStar--;
-                    } else if (orbitSpacing > minOrbitSpacing) {
-                        orbitSpacing -= 5;
-                    } else if (starRadius > minStarRadius) {
-                        starRadius -= 5;
-                    } else {
-                        // Can't reduce any further, try placement anyway
-                        System.out.println("Warning: Star system #" + (i + 1) + " is large relative to available space");
-                    }
-                    continue; // Try again with new parameters
-                }
-
-                // Ensure the star system fits within the screen by adjusting placement bounds
-                int minX = maxOrbitRadius + screenBorderPadding;
-                int maxX = SCENE_WIDTH - 380 - maxOrbitRadius - screenBorderPadding; // Account for both left and right panels
-                int minY = maxOrbitRadius + screenBorderPadding;
-                int maxY = SCENE_HEIGHT - maxOrbitRadius - screenBorderPadding;
-
-                // Check if there's enough space for this star system
-                if (minX >= maxX || minY >= maxY) {
-                    // Reduce the system size further
-                    if (planetsPerStar > minPlanetsPerStar) {
-                        planetsPerStar--;
-                    } else if (orbitSpacing > minOrbitSpacing) {
-                        orbitSpacing -= 5;
-                    } else if (starRadius > minStarRadius) {
-                        starRadius -= 5;
-                    } else {
-                        System.out.println("Warning: Cannot place star system #" + (i + 1) + " - too large for screen");
-                        break; // Can't make it fit, skip this star
-                    }
-                    continue;
-                }
-
-                // Try to place the star several times
-                for (int attempt = 0; attempt < 20; attempt++) {
-                    // Spread stars within safe boundaries
-                    int starX = random.nextInt(minX, maxX);
-                    int starY = random.nextInt(minY, maxY);
-
-                    // Check if this position overlaps with existing stars' orbits
-                    boolean overlapping = false;
-                    for (Star existingStar : stars) {
-                        int existingMaxOrbit = calculateMaxOrbitRadiusForStar(
-                                existingStar.radius,
-                                existingStar.planets.size(),
-                                existingStar.orbitSpacing
-                        );
-
-                        double distance = Math.sqrt(
-                                Math.pow(starX - existingStar.x, 2) +
-                                        Math.pow(starY - existingStar.y, 2)
-                        );
-
-                        // Check if orbits would overlap
-                        if (distance < (maxOrbitRadius + existingMaxOrbit + 10)) {
-                            overlapping = true;
-                            break;
-                        }
-                    }
-
-                    // If not overlapping, we found a good position
-                    if (!overlapping) {
-                        // Create a Star object for tracking - randomly either Volatile or Stable
-                        Star star;
-                        if (random.nextBoolean()) {
-                            star = new VolitileStar(starX, starY, starRadius);
-                        } else {
-                            star = new StableStar(starX, starY, starRadius);
-                        }
-                        star.orbitSpacing = orbitSpacing;
-                        stars.add(star);
-
-                        // First, draw all the orbit paths for this star
-                        drawOrbitsForStar(star, galaxyPane, planetsPerStar);
-
-                        // Then add the star itself
-                        Circle starCircle = new Circle(starX, starY, starRadius);
-                        starCircle.setFill(star instanceof VolitileStar ? Color.ORANGE : Color.YELLOW);
-                        galaxyPane.getChildren().add(starCircle);
-                        star.setStarCircle(starCircle);
-
-
-                        // Finally, add planets for this star
-                        createPlanetsForStar(star, galaxyPane, planetsPerStar);
-
-                        placementSuccess = true;
-                        break;
-                    }
-                }
-
-                // If we couldn't place the star after several attempts, reduce parameters
-                if (!placementSuccess) {
-                    if (planetsPerStar > minPlanetsPerStar) {
-                        planetsPerStar--;
-                    } else if (orbitSpacing > minOrbitSpacing) {
-                        orbitSpacing -= 5;
-                    } else if (starRadius > minStarRadius) {
-                        starRadius -= 5;
-                    }
-                }
-            }
+    private void selectOutputFile(Stage stage) {
+        fileChooser.setTitle("Set Output File");
+        fileChooser.getExtensionFilters().clear();
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+            new FileChooser.ExtensionFilter("Columnar Output", "*" + ColumnarSimulationOutput.FILE_EXTENSION)
+        );
 
-            if (!placementSuccess) {
-                System.out.println("Warning: Failed to place star system #" + (i + 1) + " after " + maxTries + " attempts");
+        File file = fileChooser.showSaveDialog(stage);
+        if (file != null) {
+            // Finish the current file, then create new output handler with selected file
+            closeSimulationOutput();
+            if (file.getName().endsWith(ColumnarSimulationOutput.FILE_EXTENSION)) {
+                simulationOutput = new ColumnarSimulationOutput(file.getAbsolutePath());
             } else {
-                System.out.println("Star #" + (i + 1) + " placed with " + stars.getLast().planets.size() +
-                        " planets, radius " + stars.getLast().radius + ", orbit spacing " + stars.getLast().orbitSpacing);
+                simulationOutput = new SimulationOutput(file.getAbsolutePath());
             }
         }
-
-
-        // Update the color table with all planet colors
-        updateColorTable();
-    }
-    private int calculateMaxOrbitRadiusForStar(int starRadius, int planetCount, int orbitSpacing) {
-        // Calculate the maximum orbit radius for a star
-        // First orbit is now at a consistent distance: starRadius + orbitSpacing
-        return starRadius + (planetCount * orbitSpacing) + maxPlanetRadius;
     }
 
-    private void drawOrbitsForStar(Star star, Pane root, int planetCount) {
-        // Draw all orbits with consistent spacing
-        for (int j = 0; j < planetCount; j++) {
-            // All orbits are spaced at consistent intervals from the star
-            // First orbit is one full spacing away from the star edge
-            int orbitDistance = star.radius + ((j + 1) * star.orbitSpacing);
-            drawOrbitPath(root, star, orbitDistance);
+    private void exportLayout(Stage stage) {
+        fileChooser.setTitle("Export Layout");
+        fileChooser.getExtensionFilters().clear();
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("Galaxy Layouts", "*" + GalaxyLayout.FILE_EXTENSION)
+        );
 
-            // Store the orbit distance in the star for later reference
-            star.orbitDistances.add(orbitDistance);
+        File file = fileChooser.showSaveDialog(stage);
+        if (file != null) {
+            try {
+                GalaxyLayout layout = simulation.exportLayout();
+                layout.write(file.toPath());
+                System.out.println("Exported layout with " + layout.getStarCount() + " stars and "
+                        + layout.getPlanetCount() + " planets to " + file.getAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("Error exporting layout: " + e.getMessage());
+            }
         }
     }
 
-    private void createPlanetsForStar(Star star, Pane root, int planetCount) {
-        for (int j = 0; j < planetCount; j++) {
-            // All planets use the consistently spaced orbits
-            int orbitDistance = star.radius + ((j + 1) * star.orbitSpacing);
-
-            // Planet radius - scaled based on orbit position
-            // Outer planets can be larger than inner planets
-            int maxSize = Math.min(maxPlanetRadius, star.orbitSpacing / 2);
-            int planetRadius = random.nextInt(minPlanetRadius, maxSize);
-
-            // Calculate speed based on distance from star - farther planets move slower
-            // This follows Kepler's laws more closely
-            double baseFactor = 0.015;
-            double distanceFactor = (double) (j + 1) / planetCount; // 0.2 for the first planet in the 5-planet system, 1.0 for last
-            double orbitSpeed = baseFactor * (1 - 0.7 * distanceFactor); // Slow down outer planets more
-
-            double initialAngle = random.nextDouble() * 2 * Math.PI;
-
-            // Create a planet at initial position
-            int planetX = (int) (star.x + orbitDistance * Math.cos(initialAngle));
-            int planetY = (int) (star.y + orbitDistance * Math.sin(initialAngle));
-
-            // Generate a random color for the planet's civilization
-            Color planetColor = Color.color(random.nextDouble(), random.nextDouble(), random.nextDouble());
-
-            // Add the color to our list for the color table
-
-
-            Circle planetCircle = new Circle(planetX, planetY, planetRadius);
-            planetCircle.setFill(planetColor);
-            planetCircle.setStroke(Color.BLACK);
-            root.getChildren().add(planetCircle);
-
-            // Create a civilization for this planet
-            Civilization civilization = new Civilization(planetColor);
-
-            // Add a planet to star's collection
-            Planet planet = new Planet(planetCircle, orbitDistance, initialAngle, orbitSpeed, planetRadius, civilization);
-            star.planets.add(planet);
+    private void importLayout(Stage stage) {
+        fileChooser.setTitle("Import Layout");
+        fileChooser.getExtensionFilters().clear();
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("Galaxy Layouts", "*" + GalaxyLayout.FILE_EXTENSION)
+        );
 
-            arrayPlanet.add(planet);
+        File file = fileChooser.showOpenDialog(stage);
+        if (file != null) {
+            GalaxyLayout layout;
+            try {
+                layout = GalaxyLayout.read(file.toPath());
+            } catch (IOException e) {
+                System.err.println("Error importing layout: " + e.getMessage());
+                return;
+            }
+            clearGalaxy();
+            GalaxySimulation newSimulation = newSimulation(layout.getStarCount(), layout.getMinPlanetsPerStar(),
+                    layout.getMaxPlanetsPerStar());
+            newSimulation.createGalaxy(layout);
+            showSimulation(newSimulation);
+            System.out.println("Imported layout from " + file.getAbsolutePath());
         }
     }
 
-    private void drawOrbitPath(Pane root, Star star, int orbitDistance) {
-        // Draw orbit circles with small white dots
-        int dotCount = 60;
-        for (int i = 0; i < dotCount; i++) {
-            double angle = (i / (double) dotCount) * 2 * Math.PI;
-            int x = (int) (star.x + orbitDistance * Math.cos(angle));
-            int y = (int) (star.y + orbitDistance * Math.sin(angle));
+    private void saveSnapshot(Stage stage) {
+        fileChooser.setTitle("Save Snapshot");
+        fileChooser.getExtensionFilters().clear();
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("Galaxy Snapshots", "*" + SimulationSnapshot.FILE_EXTENSION)
+        );
 
-            Circle dot = new Circle(x, y, 1);
-            dot.setFill(Color.rgb(255, 255, 255, 0.3)); // Semi-transparent
-            root.getChildren().add(dot);
+        File file = fileChooser.showSaveDialog(stage);
+        if (file != null) {
+            // Copy the state between ticks, then write it off the animation thread
+            SimulationSnapshot snapshot = simulation.snapshot();
+            snapshot.writeAsync(file.toPath()).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    System.err.println("Error saving snapshot: " + error.getMessage());
+                } else {
+                    System.out.println("Saved snapshot at tick " + snapshot.getTickCount() + " to " + file.getAbsolutePath());
+                }
+            });
         }
     }
 
-    private void updatePlanetPositions() {
-        // Update position of each planet
-        for (Star star : stars) {
-            for (Planet planet : star.planets) {
-                // Update angle based on orbit speed
-                planet.angle += planet.speed;
-
-                // Calculate a new position
-                double newX = star.x + planet.orbitDistance * Math.cos(planet.angle);
-                double newY = star.y + planet.orbitDistance * Math.sin(planet.angle);
-
-                // Update planet position
-                planet.circle.setCenterX(newX);
-                planet.circle.setCenterY(newY);
-
-                // Update civilization color on the circle
-                planet.circle.setFill(planet.civilization.getColor());
+    private void loadSnapshot(Stage stage) {
+        fileChooser.setTitle("Load Snapshot");
+        fileChooser.getExtensionFilters().clear();
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("Galaxy Snapshots", "*" + SimulationSnapshot.FILE_EXTENSION)
+        );
 
-                // Update the power label position if visible
-                Label powerLabel = powerLabels.get(planet.circle);
-                if (powerLabel != null && powerLabel.isVisible()) {
-                    powerLabel.setLayoutX(newX - powerLabel.getWidth() / 2);
-                    powerLabel.setLayoutY(newY - planet.radius - 20);
-                }
+        File file = fileChooser.showOpenDialog(stage);
+        if (file != null) {
+            SimulationSnapshot snapshot;
+            try {
+                snapshot = SimulationSnapshot.read(file.toPath());
+            } catch (IOException e) {
+                System.err.println("Error loading snapshot: " + e.getMessage());
+                return;
             }
+            clearGalaxy();
+            showSimulation(GalaxySimulation.restore(snapshot));
+            System.out.println("Loaded snapshot at tick " + snapshot.getTickCount() + " from " + file.getAbsolutePath());
         }
     }
 
-    private void processCivilizationInteractions() {
-        // For each star, check for close planets that might interact
-        for (Planet ignored : arrayPlanet) {
-            List<Planet> planets = arrayPlanet;
-
-            // Only process if there are at least 2 planets
-            if (planets.size() < 2) continue;
-
-            // Check each planet against others in the same star system
-            for (int i = 0; i < planets.size(); i++) {
-                Planet planet1 = planets.get(i);
-
-                for (int j = i + 1; j < planets.size(); j++) {
-                    Planet planet2 = planets.get(j);
-
-                    if (planet1.civilization.idCivilization == planet2.civilization.idCivilization) break;
-
-                    // Calculate distance between planets
-                    double distance = Math.sqrt(
-                            Math.pow(planet1.circle.getCenterX() - planet2.circle.getCenterX(), 2) +
-                                    Math.pow(planet1.circle.getCenterY() - planet2.circle.getCenterY(), 2)
-                    );
-
-                    // If planets are close and random chance hits, they interact
-                    double interactionDistance = planet1.radius + planet2.radius + 500;
-                    if (distance <= interactionDistance && random.nextInt(100) < civilizationInteractionChance) {
-//
-                        // Determine if civ1 attacks civ2 or vice versa (random)
-                        boolean civ1Attacks = random.nextBoolean();
-
-                        Planet attacker = civ1Attacks ? planet1 : planet2;
-                        Planet defender = civ1Attacks ? planet2 : planet1;
-
-
-                        if (attacker.circle.getFill() == Color.RED) {
-                            attacker.circle.setStroke(Color.DARKRED);
-                        } else {
-                            attacker.circle.setStroke(Color.RED);
-                        }
-                        attacker.circle.setStrokeWidth(2);
-
-                        if (defender.circle.getFill() == Color.WHITE) {
-                            defender.circle.setStroke(Color.GRAY);
-                        } else {
-                            defender.circle.setStroke(Color.WHITE);
-                        }
-                        defender.circle.setStrokeWidth(2);
-
-
-                        // Process the attack
-                        boolean attackSuccess = attacker.civilization.attack(defender.civilization);
-
-                        // Show power values
-                        showPowerValue(attacker, attacker.civilization.getPowerPoints());
-                        showPowerValue(defender, defender.civilization.getPowerPoints());
-
-                        // If attack succeeded, update the defender's planet color
-                        if (attackSuccess) {
-                            defender.circle.setFill(attacker.civilization.getColor());
-
-                            // After interaction, summon power to win civilizations
-                            attacker.civilization.summonCivilization(defender.civilization);
-
-                        }
-
-                        updatePowerCivilization(attacker, attacker.civilization.getPowerPoints());
+    private void saveEventLog(Stage stage) {
+        fileChooser.setTitle("Save Event Log");
+        fileChooser.getExtensionFilters().clear();
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("Event Logs", "*" + EventLog.FILE_EXTENSION)
+        );
 
-                        // Update the color table to reflect changes
-                        updateColorTable();
-                    }
-                }
+        File file = fileChooser.showSaveDialog(stage);
+        if (file != null) {
+            try {
+                eventLog.write(file.toPath());
+                System.out.println("Saved " + eventLog.getEventCount() + " events (" + eventLog.getByteCount()
+                        + " bytes) to " + file.getAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("Error saving event log: " + e.getMessage());
             }
         }
     }
 
-    private void showPowerValue(Planet planet, int power) {
-        // Create or get an existing power label
-        Label powerLabel = powerLabels.get(planet.circle);
-
-        if (powerLabel == null) {
-            // Create a new label
-            powerLabel = new Label(String.valueOf(power));
-            powerLabel.setTextFill(Color.WHITE);
-            powerLabel.setStyle("-fx-background-color: rgba(0,0,0,0.7); -fx-padding: 2px 5px; -fx-background-radius: 3;");
-
-            // Position the label above the planet
-            powerLabel.setLayoutX(planet.circle.getCenterX() - powerLabel.getWidth() / 2);
-            powerLabel.setLayoutY(planet.circle.getCenterY() - planet.radius - 20);
-
-            // Add to tracking and to scene
-            powerLabels.put(planet.circle, powerLabel);
-            galaxyPane.getChildren().add(powerLabel);
-        } else {
-            // Update existing label
-            powerLabel.setText(String.valueOf(power));
-            powerLabel.setVisible(true);
+    private void closeSimulationOutput() {
+        if (simulationOutput != null) {
+            simulationOutput.close();
         }
+    }
 
-        // Set the remaining display time
-        planet.powerDisplayTime = powerDisplayDuration;
-    }
-
-    private void updatePowerDisplays() {
-        // Update display time for power labels
-        for (Star star : stars) {
-            for (Planet planet : star.planets) {
-                if (planet.powerDisplayTime > 0) {
-                    planet.powerDisplayTime--;
-
-                    // If time's up, hide the label
-                    if (planet.powerDisplayTime <= 0) {
-                        Label powerLabel = powerLabels.get(planet.circle);
-                        if (powerLabel != null) {
-                            powerLabel.setVisible(false);
-                            strokeUpdate();
-                        }
-                    }
-                }
-            }
+    @Override
+    public void stop() {
+        // Flush the recorded ticks and release the simulation threads when the window closes
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        if (telemetry != null) {
+            telemetry.close();
         }
+        closeSimulationOutput();
+        simulation.getMetrics().unregister();
+        simulation.shutdown();
     }
 
-    private void strokeUpdate() {
-        for (Planet planet : arrayPlanet) {
-            planet.circle.setStroke(Color.BLACK);
-        }
+    private void resetGalaxy() {
+        clearGalaxy();
+
+        // Create a new galaxy
+        createGalaxy();
     }
 
-    public void updatePowerCivilization(Planet attacker, int power) {
-        for (Planet planet : arrayPlanet) {
-            if (planet.civilization.idCivilization == attacker.civilization.idCivilization) {
-                planet.civilization.setPowerPoints(power);
-            }
-        }
+    private void clearGalaxy() {
+        // Stop the old simulation's worker threads and clear all existing elements
+        simulation.shutdown();
+        galaxyPane.getChildren().clear();
+        particles.clear();
+
+        // Reset simulation output with a new file
+        closeSimulationOutput();
+        simulationOutput = new SimulationOutput();
     }
 
-    //For star explosion, check if explosion points >= 100 and increment points for volatile stars
-    private void processStarExplosion(BorderPane root) {
-        // First, increment explosion points for all volatile stars
-        for (Star star : stars) {
-            star.incrementExplosionPoints();
+    private void updateColorTable() {
+        colorTableModel.clearDirty();
+        int shown = colorTableModel.topCivilizations(shownCivilizations);
+
+        // Create the row nodes the first time they are needed, afterwards they are only updated
+        while (colorTableRows.size() < shown) {
+            CivilizationRow row = new CivilizationRow(colorTableRows.size() + 1);
+            colorTableRows.add(row);
+            colorTableContainer.getChildren().add(row.entry);
+        }
+        if (moreCivilizationsLabel == null) {
+            moreCivilizationsLabel = new Label();
+            moreCivilizationsLabel.setTextFill(Color.LIGHTGRAY);
+            moreCivilizationsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+            moreCivilizationsLabel.setPadding(new Insets(5, 0, 0, 0));
+            moreCivilizationsLabel.setManaged(false);
+            moreCivilizationsLabel.setVisible(false);
         }
 
-        // Then check for any stars that can explode
-        List<Star> starsToExplode = new ArrayList<>();
-        for (Star star : stars) {
-            if (star.canExplode()) {
-                starsToExplode.add(star);
+        for (int i = 0; i < colorTableRows.size(); i++) {
+            CivilizationRow row = colorTableRows.get(i);
+            if (i < shown) {
+                int civId = shownCivilizations[i];
+                Civilization civilization = simulation.getCivilizations().get(civId);
+                row.update(civId, civilization.getColor(), colorTableModel.getPlanetCount(civId), civilization.getPowerPoints());
+            } else {
+                row.hide();
             }
         }
 
-        // Explode stars that reached the threshold
-        for (Star star : starsToExplode) {
-            explodeStar(root, star);
+        // Limit the number of civilizations shown to prevent UI overflow
+        int hidden = colorTableModel.getCivilizationCount() - shown;
+        boolean showMore = hidden > 0;
+        if (showMore) {
+            moreCivilizationsLabel.setText("+" + hidden + " more civilizations");
+        }
+        if (showMore != moreCivilizationsLabel.isVisible()) {
+            // Keep the label after the rows, which may have been added since it was shown
+            colorTableContainer.getChildren().remove(moreCivilizationsLabel);
+            if (showMore) {
+                colorTableContainer.getChildren().add(moreCivilizationsLabel);
+            }
+            moreCivilizationsLabel.setVisible(showMore);
         }
     }
 
-    // For star explosion - now takes the actual Star object
-    private void explodeStar(BorderPane ignoredRoot, Star star) {
-        // Remove the original circle from the scene
-        galaxyPane.getChildren().remove(star.starCircle);
+    // One entry of the civilization table; each setter is only called when the shown value changed
+    private static class CivilizationRow {
+        final HBox entry = new HBox(10);
+        final Circle colorSample = new Circle(8);
+        final Label planetLabel = new Label();
+        final Label powerLabel = new Label();
+        int civId = -1;
+        int planetCount = -1;
+        int power = -1;
 
-        // Remove all planets associated with this star
-        List<Planet> planetsToRemove = new ArrayList<>(star.planets);
-        for (Planet planet : planetsToRemove) {
-            // Remove a planet from the scene
-            galaxyPane.getChildren().remove(planet.circle);
+        CivilizationRow(int number) {
+            entry.setAlignment(Pos.CENTER_LEFT);
 
-            // Remove any power labels
-            Label powerLabel = powerLabels.get(planet.circle);
-            if (powerLabel != null) {
-                galaxyPane.getChildren().remove(powerLabel);
-                powerLabels.remove(planet.circle);
-            }
+            // Create a circle with the civilization color
+            colorSample.setStroke(Color.WHITE);
+            colorSample.setStrokeWidth(1);
 
-            // Remove from a global planet list
-            arrayPlanet.remove(planet);
-        }
+            // Create a VBox to hold multiple labels for better formatting
+            VBox labelContainer = new VBox(1);
 
-        // Clear the star's planet list
-        star.planets.clear();
+            // Main civilization label with number
+            Label civilizationLabel = new Label("Civ " + number);
+            civilizationLabel.setTextFill(Color.WHITE);
+            civilizationLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
 
-        // Create a list to hold all explosion particles
-        List<Circle> particles = new ArrayList<>();
+            // Planets count
+            planetLabel.setTextFill(Color.LIGHTGRAY);
+            planetLabel.setFont(Font.font("Arial", 10));
 
-        // Create explosion particles
-        int particleCount = 20;
-        double radius = star.radius;
-        Color color = (Color) star.starCircle.getFill();
+            // Power points (highlighted)
+            powerLabel.setTextFill(Color.LIGHTGRAY);
+            powerLabel.setFont(Font.font("Arial", 10));
 
-        for (int i = 0; i < particleCount; i++) {
-            Circle particle = new Circle(radius / 4);
-            particle.setFill(color);
-            particle.setCenterX(star.x);
-            particle.setCenterY(star.y);
+            labelContainer.getChildren().addAll(civilizationLabel, planetLabel, powerLabel);
+            entry.getChildren().addAll(colorSample, labelContainer);
+        }
 
-            // Add some variation to particle colors
-            if (random.nextDouble() > 0.7) {
-                particle.setFill(color.brighter());
-            } else if (random.nextDouble() > 0.7) {
-                particle.setFill(color.darker());
+        void update(int civId, Color color, int planetCount, int power) {
+            if (civId != this.civId) {
+                this.civId = civId;
+                colorSample.setFill(color);
+                entry.setVisible(true);
+                entry.setManaged(true);
+            }
+            if (planetCount != this.planetCount) {
+                this.planetCount = planetCount;
+                planetLabel.setText("Planets: " + planetCount);
             }
+            if (power != this.power) {
+                this.power = power;
+                powerLabel.setText("Power: " + power);
+            }
+        }
 
-            particles.add(particle);
-            galaxyPane.getChildren().add(particle);
+        void hide() {
+            if (civId == -1) return;
+            civId = -1;
+            entry.setVisible(false);
+            entry.setManaged(false);
         }
+    }
 
-        // Create animations for each particle
-        Timeline explosion = new Timeline();
+    private void createGalaxy() {
+        // Generate the layout in the engine, then build the visual nodes for it
+        GalaxySimulation newSimulation = newSimulation(starsCount, minPlanetsPerStar, maxPlanetsPerStar);
+        if (starSystems.isEmpty()) {
+            newSimulation.createGalaxy();
+        } else {
+            newSimulation.createGalaxy(starSystems);
+        }
+        showSimulation(newSimulation);
+    }
 
-        for (Circle particle : particles) {
-            // Random angle and distance for particle to travel
-            double angle = random.nextDouble() * 2 * Math.PI;
-            double distance = 50 + random.nextDouble() * 100;
+    // An empty simulation with the configured seed and interaction tuning
+    private GalaxySimulation newSimulation(int starsCount, int minPlanetsPerStar, int maxPlanetsPerStar) {
+        GalaxySimulation newSimulation = seed != null
+                ? new GalaxySimulation(starsCount, minPlanetsPerStar, maxPlanetsPerStar, seed)
+                : new GalaxySimulation(starsCount, minPlanetsPerStar, maxPlanetsPerStar);
+        newSimulation.setInteractionChance(interactionChance);
+        newSimulation.setInteractionRange(interactionRange);
+        return newSimulation;
+    }
 
-            // Calculate final position
-            double finalX = particle.getCenterX() + Math.cos(angle) * distance;
-            double finalY = particle.getCenterY() + Math.sin(angle) * distance;
+    private void showSimulation(GalaxySimulation newSimulation) {
+        simulation = newSimulation;
+        simulation.addListener(this);
+        simulation.addListener(colorTableModel);
+        colorTableModel.reset(simulation);
+        eventLog = new EventLog(simulation);
+        simulation.addListener(eventLog);
+        if (telemetry != null) {
+            simulation.addListener(telemetry);
+        }
+        // Replaces the metrics of the previous galaxy
+        simulation.getMetrics().register();
 
-            // Create keyframes for movement and fading
-            KeyValue xValue = new KeyValue(particle.centerXProperty(), finalX);
-            KeyValue yValue = new KeyValue(particle.centerYProperty(), finalY);
-            KeyValue opacityValue = new KeyValue(particle.opacityProperty(), 0);
-            KeyValue scaleValue = new KeyValue(particle.scaleXProperty(), 0.1);
-            KeyValue scaleYValue = new KeyValue(particle.scaleYProperty(), 0.1);
+        // Build the visual state below any labels added later
+        renderer.build(simulation);
+        galaxyPane.getChildren().add(0, renderer.getView());
+        galaxyPane.getChildren().add(1, particles.getView());
+        galaxyPane.getChildren().add(2, powerLabels.getView());
+        powerLabels.reset(simulation.getPlanetStore().size());
 
-            KeyFrame keyFrame = new KeyFrame(Duration.millis(800),
-                    xValue, yValue, opacityValue, scaleValue, scaleYValue);
+        // Start with the whole galaxy in view
+        camera.fit(simulation.getWorldWidth(), simulation.getWorldHeight());
+        renderFrame();
 
-            explosion.getKeyFrames().add(keyFrame);
+        // Update the color table with all planet colors
+        updateColorTable();
+    }
+
+    @Override
+    public void onPlanetAttacked(int attackerId, int defenderId, boolean success) {
+        // The new owner's color is picked up by the next render
+        renderer.highlightAttack(attackerId, defenderId);
+
+        // Show power values
+        showPowerValue(attackerId, simulation.getCivilization(attackerId).getPowerPoints());
+        showPowerValue(defenderId, simulation.getCivilization(defenderId).getPowerPoints());
+    }
+
+    @Override
+    public void onInteractionRound(GalaxySimulation simulation) {
+        // Record simulation state to CSV
+        if (simulationOutput != null) {
+            long recordStart = System.nanoTime();
+            simulationOutput.recordTick(simulation);
+            simulation.getMetrics().recordPhase(SimulationMetrics.OUTPUT_RECORDING, recordStart);
         }
+    }
 
-        // When animation finishes, remove all particles and reset the star
-        explosion.setOnFinished(e -> {
-            galaxyPane.getChildren().removeAll(particles);
+    private void showPowerValue(int planet, int power) {
+        // The planet's highlight always expires; planets outside the view get no label
+        PlanetStore planets = simulation.getPlanetStore();
+        boolean visible = camera.isVisible(planets.x[planet], planets.y[planet], planets.radius[planet]);
+        powerLabels.show(planet, power, visible, planets, camera);
+    }
 
-            // Reset the star's explosion points to 1
-            star.explosionPoints = 1;
+    // For star explosion - the engine already removed the star and its planets, clean up the scene
+    @Override
+    public void onStarExploded(Star star) {
+        renderer.removeStar(star);
 
-            // Remove a star from a star list
-            stars.remove(star);
+        // Hide any power labels of the star's planets
+        for (int i = star.firstPlanet; i < star.firstPlanet + star.planetCount; i++) {
+            powerLabels.remove(i);
+        }
 
-            // Update the color table to reflect the changes
-            updateColorTable();
-        });
+        // Explosions outside the view are not animated
+        if (!camera.isVisible(star.x, star.y, star.systemRadius())) return;
 
-        // Play the explosion animation
-        explosion.play();
+        double zoom = camera.getZoom();
+        particles.spawn(camera.toScreenX(star.x), camera.toScreenY(star.y), star.radius * zoom / 4, 50 * zoom,
+                GalaxyRenderer.starColor(star), PARTICLES_PER_EXPLOSION, random);
     }
 
     public static void main(String[] args) {
@@ -3,15 +3,37 @@ package org.example.poprojectgalaxyv7;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Galaxy configuration read from a CSV file, one line at a time. Lines are either a parameter
+//   Parameter,Value           e.g. StarsCount,300
+// or a star system definition
+//   System,x,y,radius,planets[,stable|volatile|random[,power]]
+// Blank lines, lines starting with # and a "Parameter,Value" header are skipped. Parameter names ignore case,
+// spaces and underscores. When systems are defined they replace the randomly placed ones.
+//
+// Parameters split into two groups: the galaxy parameters (stars, planets, seed, systems) only take effect
+// when a galaxy is created, the tunables (speed, interaction chance and range) can change a running simulation.
 public class InputConfig {
+    // Upper bound for InteractionRange, it sizes the cells of the simulation's spatial grid
+    public static final int MAX_INTERACTION_RANGE = 5000;
+    private static final int MAX_CIVILIZATION_POWER = 1000;
+
     //ENCUPSULATION
+    // Galaxy parameters
     private int starsCount;
     private int minPlanetsPerStar;
     private int maxPlanetsPerStar;
+    private boolean hasSeed = false;
+    private long seed;
+    private final List<StarSystemDefinition> starSystems = new ArrayList<>();
+
+    // Tunables
     private int simulationSpeed;
+    private int interactionChance;
+    private int interactionRange;
 
     public InputConfig() {
         // Default values from SimulationConfig
@@ -19,122 +41,120 @@ public class InputConfig {
         this.minPlanetsPerStar = SimulationConfig.DEFAULT_MIN_PLANETS;
         this.maxPlanetsPerStar = SimulationConfig.DEFAULT_MAX_PLANETS;
         this.simulationSpeed = SimulationConfig.DEFAULT_SIMULATION_SPEED;
+        this.interactionChance = SimulationConfig.civilizationInteractionChance;
+        this.interactionRange = SimulationConfig.interactionRange;
     }
 
+    /**
+     * Read a configuration file. Invalid lines and out-of-range values are reported and skipped,
+     * the affected settings keep their defaults.
+     *
+     * @return false if the file could not be read
+     */
     public boolean loadFromCsv(String filePath) {
-        System.out.println("Loading configuration from: " + filePath);
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
-            Map<String, Integer> configMap = new HashMap<>();
-
-            // Skip header line if it exists
-            line = reader.readLine();
-            if (line != null) {
-                System.out.println("First line: " + line);
-                if (line.toLowerCase().contains("parameter")) {
-                    // Skip header
-                    line = reader.readLine();
-                    System.out.println("Skipped header, reading data line: " + line);
-                }
-            }
-
-            // Process each line
-            while (line != null) {
-                // Skip empty lines
-                if (line.trim().isEmpty()) {
-                    line = reader.readLine();
-                    continue;
-                }
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
 
                 String[] parts = line.split(",");
-                if (parts.length >= 2) {
-                    String parameter = parts[0].trim();
-                    try {
-                        int value = Integer.parseInt(parts[1].trim());
-                        // Store with original case and lowercase for flexible matching
-                        configMap.put(parameter.toLowerCase(), value);
-                        System.out.println("Loaded parameter: " + parameter + " = " + value);
-                    } catch (NumberFormatException e) {
-                        System.err.println("Invalid value for parameter: " + parameter);
-                    }
-                } else {
-                    System.err.println("Invalid line format: " + line);
-                }
-                line = reader.readLine();
-            }
-
-            // Now apply the loaded values with comprehensive matching and validation
-            // Stars count
-            String[] starsParams = {"stars", "starscount", "starcount", "star"};
-            for (String param : starsParams) {
-                if (configMap.containsKey(param)) {
-                    int value = configMap.get(param);
-                    if (value >= SimulationConfig.MIN_STARS_COUNT && value <= SimulationConfig.MAX_STARS_COUNT) {
-                        starsCount = value;
-                        System.out.println("Set stars count to: " + starsCount);
-                        break;
+                String name = normalize(parts[0]);
+                if (name.equals("parameter")) continue;
+
+                try {
+                    if (name.equals("system")) {
+                        starSystems.add(parseStarSystem(parts));
+                    } else if (parts.length == 2) {
+                        applyParameter(name, parts[1].trim());
                     } else {
-                        System.out.println("Stars count " + value + " out of valid range " + 
-                            SimulationConfig.MIN_STARS_COUNT + "-" + SimulationConfig.MAX_STARS_COUNT);
+                        throw new IllegalArgumentException("expected Parameter,Value or System,x,y,radius,planets");
                     }
+                } catch (IllegalArgumentException e) {
+                    // Also covers NumberFormatException
+                    System.err.println(filePath + ":" + lineNumber + ": " + e.getMessage() + ", skipped: " + line);
                 }
             }
+        } catch (IOException e) {
+            System.err.println("Error reading input configuration file: " + e.getMessage());
+            return false;
+        }
 
-            // Min planets per star
-            String[] minPlanetsParams = {"minplanets", "minplanetsperstar", "minplanet"};
-            for (String param : minPlanetsParams) {
-                if (configMap.containsKey(param)) {
-                    int value = configMap.get(param);
-                    if (value >= SimulationConfig.MIN_PLANETS_LOWER_BOUND && value <= maxPlanetsPerStar) {
-                        minPlanetsPerStar = value;
-                        System.out.println("Set min planets per star to: " + minPlanetsPerStar);
-                        break;
-                    } else {
-                        System.out.println("Min planets " + value + " out of valid range " + 
-                            SimulationConfig.MIN_PLANETS_LOWER_BOUND + "-" + maxPlanetsPerStar);
-                    }
-                }
-            }
+        if (minPlanetsPerStar > maxPlanetsPerStar) {
+            System.err.println(filePath + ": min planets " + minPlanetsPerStar + " is above max planets "
+                    + maxPlanetsPerStar + ", using " + maxPlanetsPerStar + " for both");
+            minPlanetsPerStar = maxPlanetsPerStar;
+        }
+        if (!starSystems.isEmpty()) {
+            starsCount = starSystems.size();
+        }
 
-            // Max planets per star
-            String[] maxPlanetsParams = {"maxplanets", "maxplanetsperstar", "maxplanet"};
-            for (String param : maxPlanetsParams) {
-                if (configMap.containsKey(param)) {
-                    int value = configMap.get(param);
-                    if (value >= minPlanetsPerStar && value <= SimulationConfig.MAX_PLANETS_UPPER_BOUND) {
-                        maxPlanetsPerStar = value;
-                        System.out.println("Set max planets per star to: " + maxPlanetsPerStar);
-                        break;
-                    } else {
-                        System.out.println("Max planets " + value + " out of valid range " + 
-                            minPlanetsPerStar + "-" + SimulationConfig.MAX_PLANETS_UPPER_BOUND);
-                    }
-                }
-            }
+        return true;
+    }
 
-            // Simulation speed
-            String[] speedParams = {"speed", "simulationspeed", "simspeed"};
-            for (String param : speedParams) {
-                if (configMap.containsKey(param)) {
-                    int value = configMap.get(param);
-                    if (value >= SimulationConfig.MIN_SIMULATION_SPEED && value <= SimulationConfig.MAX_SIMULATION_SPEED) {
-                        simulationSpeed = value;
-                        System.out.println("Set simulation speed to: " + simulationSpeed);
-                        break;
-                    } else {
-                        System.out.println("Simulation speed " + value + " out of valid range " + 
-                            SimulationConfig.MIN_SIMULATION_SPEED + "-" + SimulationConfig.MAX_SIMULATION_SPEED);
-                    }
-                }
+    private void applyParameter(String name, String value) {
+        switch (name) {
+            case "stars", "starscount", "starcount", "star" -> starsCount =
+                    parseInt(value, SimulationConfig.MIN_STARS_COUNT, SimulationConfig.MAX_STARS_COUNT, "Stars count");
+            case "minplanets", "minplanetsperstar", "minplanet" -> minPlanetsPerStar = parseInt(value,
+                    SimulationConfig.MIN_PLANETS_LOWER_BOUND, SimulationConfig.MAX_PLANETS_UPPER_BOUND, "Min planets");
+            case "maxplanets", "maxplanetsperstar", "maxplanet" -> maxPlanetsPerStar = parseInt(value,
+                    SimulationConfig.MIN_PLANETS_LOWER_BOUND, SimulationConfig.MAX_PLANETS_UPPER_BOUND, "Max planets");
+            case "seed" -> {
+                seed = Long.parseLong(value);
+                hasSeed = true;
             }
+            case "speed", "simulationspeed", "simspeed" -> simulationSpeed = parseInt(value,
+                    SimulationConfig.MIN_SIMULATION_SPEED, SimulationConfig.MAX_SIMULATION_SPEED, "Simulation speed");
+            case "interactionchance", "civilizationinteractionchance" -> interactionChance =
+                    parseInt(value, 0, 100, "Interaction chance");
+            case "interactionrange" -> interactionRange =
+                    parseInt(value, 0, MAX_INTERACTION_RANGE, "Interaction range");
+            default -> throw new IllegalArgumentException("unknown parameter " + name);
+        }
+    }
 
-            System.out.println("Configuration loaded successfully");
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error reading input configuration file: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+    // System,x,y,radius,planets[,type[,power]]
+    private static StarSystemDefinition parseStarSystem(String[] parts) {
+        if (parts.length < 5 || parts.length > 7) {
+            throw new IllegalArgumentException("expected System,x,y,radius,planets[,type[,power]]");
+        }
+        double x = Double.parseDouble(parts[1].trim());
+        double y = Double.parseDouble(parts[2].trim());
+        int radius = parseInt(parts[3], SimulationConfig.minStarRadius, SimulationConfig.maxStarRadius, "Star radius");
+        int planetCount = parseInt(parts[4], SimulationConfig.MIN_PLANETS_LOWER_BOUND,
+                SimulationConfig.MAX_PLANETS_UPPER_BOUND, "Planet count");
+
+        int type = StarSystemDefinition.RANDOM;
+        if (parts.length > 5) {
+            type = switch (normalize(parts[5])) {
+                case "stable" -> StarSystemDefinition.STABLE;
+                case "volatile", "volitile" -> StarSystemDefinition.VOLATILE;
+                case "random", "" -> StarSystemDefinition.RANDOM;
+                default -> throw new IllegalArgumentException("unknown star type " + parts[5].trim());
+            };
+        }
+
+        int power = StarSystemDefinition.RANDOM_POWER;
+        if (parts.length > 6) {
+            power = parseInt(parts[6], 1, MAX_CIVILIZATION_POWER, "Civilization power");
+        }
+        return new StarSystemDefinition(x, y, radius, planetCount, type, power);
+    }
+
+    private static int parseInt(String text, int min, int max, String what) {
+        int value = Integer.parseInt(text.trim());
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(what + " " + value + " out of valid range " + min + "-" + max);
         }
+        return value;
+    }
+
+    // Lower case without spaces and underscores, so "Stars Count" and "stars_count" match "starscount"
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replace(" ", "").replace("_", "");
     }
 
     public int getStarsCount() {
@@ -149,7 +169,28 @@ public class InputConfig {
         return maxPlanetsPerStar;
     }
 
+    public boolean hasSeed() {
+        return hasSeed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Explicit star systems, empty when the galaxy is placed at random
+    public List<StarSystemDefinition> getStarSystems() {
+        return starSystems;
+    }
+
     public int getSimulationSpeed() {
         return simulationSpeed;
     }
+
+    public int getInteractionChance() {
+        return interactionChance;
+    }
+
+    public int getInteractionRange() {
+        return interactionRange;
+    }
 }
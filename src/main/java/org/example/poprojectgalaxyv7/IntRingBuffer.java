@@ -0,0 +1,108 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded single-producer / single-consumer ring buffer of ints. The producer blocks while the buffer is full,
+// so nothing is ever dropped; the consumer drains whatever is available in one copy.
+public class IntRingBuffer {
+    private final int[] buffer;
+    private final int mask;
+    private long readPosition = 0;
+    private long writePosition = 0;
+    private boolean closed = false;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * @param capacity Number of ints the buffer can hold, rounded up to a power of two
+     */
+    public IntRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.buffer = new int[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Append length ints from source, waiting for free space as needed.
+     * Values larger than the capacity are written in several pieces.
+     *
+     * @return false if the buffer was closed before everything was written
+     */
+    public boolean put(int[] source, int length) throws InterruptedException {
+        int offset = 0;
+        lock.lock();
+        try {
+            while (offset < length) {
+                if (closed) {
+                    return false;
+                }
+                int free = buffer.length - (int) (writePosition - readPosition);
+                if (free == 0) {
+                    notFull.await();
+                    continue;
+                }
+                int count = Math.min(free, length - offset);
+                for (int i = 0; i < count; i++) {
+                    buffer[(int) (writePosition + i) & mask] = source[offset + i];
+                }
+                writePosition += count;
+                offset += count;
+                notEmpty.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move up to target.length ints into target, waiting at most timeoutMillis for data.
+     *
+     * @return Number of ints copied, 0 on timeout or when the buffer is closed and empty
+     */
+    public int take(int[] target, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (writePosition == readPosition && !closed && remaining > 0) {
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            int count = (int) Math.min(target.length, writePosition - readPosition);
+            for (int i = 0; i < count; i++) {
+                target[i] = buffer[(int) (readPosition + i) & mask];
+            }
+            readPosition += count;
+            if (count > 0) {
+                notFull.signal();
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stop accepting data; the consumer can still drain what is left
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isClosedAndEmpty() {
+        lock.lock();
+        try {
+            return closed && writePosition == readPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear histogram of durations in nanoseconds. Every power of two is split into SUB_BUCKETS
+// linear buckets, so a percentile is off by at most 1 / SUB_BUCKETS (12.5%) while the whole range up to
+// Long.MAX_VALUE fits in a few hundred counters. Recording is a handful of plain loads and release
+// stores: there must be a single writer thread, but any thread may read.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one duration. Only call this from the thread that owns the histogram.
+     *
+     * @param nanos The duration in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        int index = bucketOf(nanos);
+        buckets.setRelease(index, buckets.getPlain(index) + 1);
+        total.setRelease(total.getPlain() + nanos);
+        if (nanos > max.getPlain()) {
+            max.setRelease(nanos);
+        }
+        // Last, so a reader that sees the count also sees the bucket
+        count.setRelease(count.getPlain() + 1);
+    }
+
+    public long getCount() {
+        return count.getAcquire();
+    }
+
+    public long getTotalNanos() {
+        return total.getAcquire();
+    }
+
+    public long getMaxNanos() {
+        return max.getAcquire();
+    }
+
+    public double getMeanNanos() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getTotalNanos() / n;
+    }
+
+    /**
+     * Estimate a percentile from the buckets.
+     *
+     * @param percentile From 0 to 100
+     * @return The upper bound of the bucket holding the percentile, at most the largest recorded value
+     */
+    public long getPercentileNanos(double percentile) {
+        long n = getCount();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += buckets.getAcquire(index);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(index), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    // Single writer only, like record()
+    public void reset() {
+        for (int index = 0; index < BUCKETS; index++) {
+            buckets.setRelease(index, 0);
+        }
+        total.setRelease(0);
+        max.setRelease(0);
+        count.setRelease(0);
+    }
+
+    // Values below SUB_BUCKETS get one bucket each, above that the top SUB_BUCKET_BITS + 1 bits pick the bucket
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> exponent) - SUB_BUCKETS;
+        return (exponent + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+}
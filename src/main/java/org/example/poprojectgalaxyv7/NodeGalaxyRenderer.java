@@ -0,0 +1,159 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.transform.Affine;
+
+// Renders every star, orbit dot and planet as its own Circle node. The nodes of a star system are grouped
+// and only created once the system first comes into view; systems outside the view are hidden and skipped.
+public class NodeGalaxyRenderer implements GalaxyRenderer {
+    private final Pane layer = new Pane();
+    // World to screen transform of every node, updated when the camera moves
+    private final Affine cameraTransform = new Affine();
+    private final Group world = new Group();
+    private GalaxySimulation simulation;
+    // Visual representation of every planet, indexed by PlanetStore index; null until its system is shown
+    private Planet[] planetViews = new Planet[0];
+    // Nodes of every star system, indexed by Star.index; null until the system is shown
+    private Group[] systemViews = new Group[0];
+    private long cameraVersion = -1;
+
+    public NodeGalaxyRenderer() {
+        world.getTransforms().add(cameraTransform);
+        layer.getChildren().add(world);
+    }
+
+    @Override
+    public Node getView() {
+        return layer;
+    }
+
+    @Override
+    public void build(GalaxySimulation simulation) {
+        this.simulation = simulation;
+        world.getChildren().clear();
+        planetViews = new Planet[simulation.getPlanetStore().size()];
+        // Star indices keep their value after other stars exploded, so size by the highest one
+        int systemCount = 0;
+        for (Star star : simulation.getStars()) {
+            systemCount = Math.max(systemCount, star.index + 1);
+        }
+        systemViews = new Group[systemCount];
+        cameraVersion = -1;
+    }
+
+    private Group createSystemView(Star star) {
+        Group system = new Group();
+        PlanetStore planets = simulation.getPlanetStore();
+
+        // First, draw all the orbit paths for this star
+        for (int orbit = 0; orbit < star.planetCount; orbit++) {
+            drawOrbitPath(system, star, star.orbitDistance(orbit));
+        }
+
+        // Then add the star itself
+        Circle starCircle = new Circle(star.x, star.y, star.radius);
+        starCircle.setFill(GalaxyRenderer.starColor(star));
+        system.getChildren().add(starCircle);
+        star.setStarCircle(starCircle);
+
+        // Finally, add planets for this star
+        for (int planet = star.firstPlanet; planet < star.firstPlanet + star.planetCount; planet++) {
+            Circle planetCircle = new Circle(planets.x[planet], planets.y[planet], planets.radius[planet]);
+            planetCircle.setFill(simulation.getCivilization(planet).getColor());
+            planetCircle.setStroke(Color.BLACK);
+            system.getChildren().add(planetCircle);
+            planetViews[planet] = new Planet(planet, planetCircle);
+        }
+
+        world.getChildren().add(system);
+        return system;
+    }
+
+    private void drawOrbitPath(Group system, Star star, int orbitDistance) {
+        // Draw orbit circles with small white dots
+        int dotCount = 60;
+        for (int i = 0; i < dotCount; i++) {
+            double angle = (i / (double) dotCount) * 2 * Math.PI;
+            int x = (int) (star.x + orbitDistance * Math.cos(angle));
+            int y = (int) (star.y + orbitDistance * Math.sin(angle));
+
+            Circle dot = new Circle(x, y, 1);
+            dot.setFill(Color.rgb(255, 255, 255, 0.3)); // Semi-transparent
+            system.getChildren().add(dot);
+        }
+    }
+
+    @Override
+    public void render(double alpha, Camera camera) {
+        if (camera.getVersion() != cameraVersion) {
+            cameraVersion = camera.getVersion();
+            double zoom = camera.getZoom();
+            cameraTransform.setToTransform(zoom, 0, -camera.getX() * zoom, 0, zoom, -camera.getY() * zoom);
+        }
+
+        // Copy the position of each visible planet from the simulation to its circle
+        PlanetStore planets = simulation.getPlanetStore();
+        for (Star star : simulation.getStars()) {
+            Group system = systemViews[star.index];
+            if (!camera.isVisible(star.x, star.y, star.systemRadius())) {
+                if (system != null) {
+                    system.setVisible(false);
+                }
+                continue;
+            }
+            if (system == null) {
+                system = createSystemView(star);
+                systemViews[star.index] = system;
+            }
+            system.setVisible(true);
+
+            for (int i = star.firstPlanet; i < star.firstPlanet + star.planetCount; i++) {
+                Circle circle = planetViews[i].circle;
+
+                // Update planet position
+                circle.setCenterX(planets.getX(i, alpha));
+                circle.setCenterY(planets.getY(i, alpha));
+
+                // Update civilization color on the circle
+                circle.setFill(simulation.getCivilization(i).getColor());
+            }
+        }
+    }
+
+    @Override
+    public void highlightAttack(int attacker, int defender) {
+        // Planets of systems that were never shown have no circle to outline
+        if (planetViews[attacker] != null) {
+            Circle attackerCircle = planetViews[attacker].circle;
+            attackerCircle.setStroke(GalaxyRenderer.attackerStroke((Color) attackerCircle.getFill()));
+            attackerCircle.setStrokeWidth(2);
+        }
+
+        if (planetViews[defender] != null) {
+            Circle defenderCircle = planetViews[defender].circle;
+            defenderCircle.setStroke(GalaxyRenderer.defenderStroke((Color) defenderCircle.getFill()));
+            defenderCircle.setStrokeWidth(2);
+        }
+    }
+
+    @Override
+    public void clearHighlight(int planet) {
+        if (planetViews[planet] != null) {
+            planetViews[planet].circle.setStroke(Color.BLACK);
+        }
+    }
+
+    @Override
+    public void removeStar(Star star) {
+        // Remove the star system with all its planets from the scene
+        Group system = systemViews[star.index];
+        if (system != null) {
+            world.getChildren().remove(system);
+            systemViews[star.index] = null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+
+// Explosion particles drawn from a fixed pool of Circles that stay in the scene graph for the whole run.
+// Idle particles are hidden; spawning one only sets its properties, and update() animates every active
+// particle from the main animation loop, so explosions allocate nothing and need no Timeline. When the pool
+// is exhausted, new explosions get fewer particles (or none) instead of growing the scene.
+// Particles live in screen space and do not follow the camera during their short life.
+public class ParticleSystem {
+    // The particle has not been drawn yet; its animation starts at the next update
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    private static final double END_SCALE = 0.1;
+
+    //ENCAPSULATION
+    private final Group layer = new Group();
+    private final Circle[] pool;
+    private final long durationNanos;
+
+    // Per-particle animation, indexed like pool
+    private final double[] startX;
+    private final double[] startY;
+    private final double[] travelX;
+    private final double[] travelY;
+    private final long[] startTime;
+
+    // Active particle indices, unordered, and a stack of free ones
+    private final int[] active;
+    private int activeCount = 0;
+    private final int[] free;
+    private int freeCount;
+
+    /**
+     * @param capacity       The most particles visible at once
+     * @param durationMillis How long a particle flies and fades
+     */
+    public ParticleSystem(int capacity, long durationMillis) {
+        this.pool = new Circle[capacity];
+        this.durationNanos = durationMillis * 1_000_000;
+        this.startX = new double[capacity];
+        this.startY = new double[capacity];
+        this.travelX = new double[capacity];
+        this.travelY = new double[capacity];
+        this.startTime = new long[capacity];
+        this.active = new int[capacity];
+        this.free = new int[capacity];
+
+        for (int i = 0; i < capacity; i++) {
+            Circle particle = new Circle();
+            particle.setVisible(false);
+            pool[i] = particle;
+            free[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+        layer.getChildren().addAll(pool);
+        layer.setMouseTransparent(true);
+    }
+
+    public Node getView() {
+        return layer;
+    }
+
+    public int getCapacity() {
+        return pool.length;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Start an explosion at a screen position. Particles fly in random directions while they fade and shrink.
+     *
+     * @param x        Screen x of the center
+     * @param y        Screen y of the center
+     * @param radius   Screen radius of each particle
+     * @param distance Screen distance range: particles travel between distance and three times distance
+     * @param color    Base color; some particles get a brighter or darker shade
+     * @param count    Particles wanted; fewer are used when the pool runs low
+     * @param random   Stream for the directions, distances and shades
+     * @return The number of particles actually spawned
+     */
+    public int spawn(double x, double y, double radius, double distance, Color color, int count, GalaxyRandom random) {
+        int spawned = Math.min(count, freeCount);
+        if (spawned == 0) return 0;
+
+        Color brighter = color.brighter();
+        Color darker = color.darker();
+        for (int i = 0; i < spawned; i++) {
+            int p = free[--freeCount];
+            active[activeCount++] = p;
+
+            Circle particle = pool[p];
+            // Add some variation to particle colors
+            if (random.nextDouble() > 0.7) {
+                particle.setFill(brighter);
+            } else if (random.nextDouble() > 0.7) {
+                particle.setFill(darker);
+            } else {
+                particle.setFill(color);
+            }
+            particle.setRadius(radius);
+            particle.setCenterX(x);
+            particle.setCenterY(y);
+            particle.setOpacity(1);
+            particle.setScaleX(1);
+            particle.setScaleY(1);
+            particle.setVisible(true);
+
+            // Random angle and distance for the particle to travel
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double travel = distance * (1 + 2 * random.nextDouble());
+            startX[p] = x;
+            startY[p] = y;
+            travelX[p] = Math.cos(angle) * travel;
+            travelY[p] = Math.sin(angle) * travel;
+            startTime[p] = NOT_STARTED;
+        }
+        return spawned;
+    }
+
+    /**
+     * Move, fade and shrink the active particles, and return finished ones to the pool.
+     *
+     * @param now The frame time in nanoseconds, as passed to AnimationTimer.handle
+     */
+    public void update(long now) {
+        for (int i = activeCount - 1; i >= 0; i--) {
+            int p = active[i];
+            if (startTime[p] == NOT_STARTED) {
+                startTime[p] = now;
+            }
+
+            double t = (double) (now - startTime[p]) / durationNanos;
+            if (t >= 1) {
+                release(i);
+                continue;
+            }
+
+            // Linear like the default KeyValue interpolation
+            double scale = 1 - (1 - END_SCALE) * t;
+            Circle particle = pool[p];
+            particle.setCenterX(startX[p] + travelX[p] * t);
+            particle.setCenterY(startY[p] + travelY[p] * t);
+            particle.setOpacity(1 - t);
+            particle.setScaleX(scale);
+            particle.setScaleY(scale);
+        }
+    }
+
+    // Hide every particle, e.g. when the galaxy is replaced
+    public void clear() {
+        for (int i = activeCount - 1; i >= 0; i--) {
+            release(i);
+        }
+    }
+
+    // Remove active[i] by moving the last active particle into its slot
+    private void release(int i) {
+        int p = active[i];
+        pool[p].setVisible(false);
+        active[i] = active[--activeCount];
+        free[freeCount++] = p;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.poprojectgalaxyv7;
+
+import javax.management.ConstructorParameters;
+
+// Summary of one LatencyHistogram, mapped to a CompositeData attribute by the MXBean
+public class PhaseTiming {
+    private final long count;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    @ConstructorParameters({"count", "meanMicros", "p50Micros", "p99Micros", "maxMicros"})
+    public PhaseTiming(long count, double meanMicros, double p50Micros, double p99Micros, double maxMicros) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    static PhaseTiming of(LatencyHistogram histogram) {
+        return new PhaseTiming(histogram.getCount(), histogram.getMeanNanos() / 1000,
+                histogram.getPercentileNanos(50) / 1000.0, histogram.getPercentileNanos(99) / 1000.0,
+                histogram.getMaxNanos() / 1000.0);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus",
+                count, meanMicros, p50Micros, p99Micros, maxMicros);
+    }
+}
@@ -3,24 +3,15 @@ package org.example.poprojectgalaxyv7;
 import javafx.scene.shape.Circle;
 
 // Planet class for animation
+// Node representation of one planet; the simulation state itself lives in PlanetStore under the same id
 public class Planet{
-    //COMPOSITION
-    Circle circle;
-    double orbitDistance;
-    double angle;
-    double speed;
-    int radius;
+    // Index of the planet in the simulation's PlanetStore
+    int id;
     // COMPOSITION
-    Civilization civilization;
-    int powerDisplayTime = 0;
+    Circle circle;
 
-    public Planet(Circle circle, double orbitDistance, double angle, double speed,
-                  int radius, Civilization civilization) {
+    public Planet(int id, Circle circle) {
+        this.id = id;
         this.circle = circle;
-        this.orbitDistance = orbitDistance;
-        this.angle = angle;
-        this.speed = speed;
-        this.radius = radius;
-        this.civilization = civilization;
     }
-}
\ No newline at end of file
+}
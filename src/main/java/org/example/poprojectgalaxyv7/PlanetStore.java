@@ -0,0 +1,205 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.Arrays;
+
+// Structure-of-arrays storage for every planet of a simulation. A planet is an index into the parallel arrays;
+// indices are stable for the whole run, planets of an exploded star are only marked dead.
+// The planets of one star are added together, so each star owns a contiguous index range.
+public class PlanetStore {
+    public static final int DEAD = -1;
+
+    double[] angle;
+    double[] speed;
+    // cos(speed) and sin(speed): the rotation applied every tick, constant for the planet's whole life
+    double[] rotationCos;
+    double[] rotationSin;
+    double[] orbitDistance;
+    double[] x;
+    double[] y;
+    // Position before the last advance, for interpolating between ticks
+    double[] previousX;
+    double[] previousY;
+    int[] radius;
+    int[] starIndex; // DEAD once the planet's star exploded
+    int[] civId;
+    private int size = 0;
+
+    public PlanetStore() {
+        this(64);
+    }
+
+    public PlanetStore(int initialCapacity) {
+        angle = new double[initialCapacity];
+        speed = new double[initialCapacity];
+        rotationCos = new double[initialCapacity];
+        rotationSin = new double[initialCapacity];
+        orbitDistance = new double[initialCapacity];
+        x = new double[initialCapacity];
+        y = new double[initialCapacity];
+        previousX = new double[initialCapacity];
+        previousY = new double[initialCapacity];
+        radius = new int[initialCapacity];
+        starIndex = new int[initialCapacity];
+        civId = new int[initialCapacity];
+    }
+
+    /**
+     * Add a planet and compute its initial position around the given star center.
+     *
+     * @return The index of the new planet
+     */
+    public int add(int starIndex, double starX, double starY, double orbitDistance, double angle,
+                   double speed, int radius, int civId) {
+        ensureCapacity(size + 1);
+        int i = size++;
+        this.starIndex[i] = starIndex;
+        this.orbitDistance[i] = orbitDistance;
+        this.angle[i] = angle;
+        this.speed[i] = speed;
+        this.rotationCos[i] = Math.cos(speed);
+        this.rotationSin[i] = Math.sin(speed);
+        this.radius[i] = radius;
+        this.civId[i] = civId;
+        this.x[i] = starX + orbitDistance * Math.cos(angle);
+        this.y[i] = starY + orbitDistance * Math.sin(angle);
+        this.previousX[i] = this.x[i];
+        this.previousY[i] = this.y[i];
+        return i;
+    }
+
+    /**
+     * Advance the planets in [from, to) along their orbits around the given star center.
+     * The offset from the star is rotated by the planet's precomputed rotation, so no trig is called;
+     * rounding makes the position drift by about 1e-10 pixels per call, until the next resync().
+     * A plain loop over primitive arrays, so the JIT can keep everything in registers.
+     */
+    public void advance(int from, int to, double starX, double starY) {
+        for (int i = from; i < to; i++) {
+            angle[i] += speed[i];
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            double dx = x[i] - starX;
+            double dy = y[i] - starY;
+            double c = rotationCos[i];
+            double s = rotationSin[i];
+            x[i] = starX + dx * c - dy * s;
+            y[i] = starY + dx * s + dy * c;
+        }
+    }
+
+    /**
+     * Advance the planets in [from, to) like advance(), but compute the exact position from the angle.
+     * Removes the error accumulated by the rotation recurrence.
+     */
+    public void resync(int from, int to, double starX, double starY) {
+        for (int i = from; i < to; i++) {
+            double a = angle[i] + speed[i];
+            angle[i] = a;
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            x[i] = starX + orbitDistance[i] * Math.cos(a);
+            y[i] = starY + orbitDistance[i] * Math.sin(a);
+        }
+    }
+
+    public void kill(int planet) {
+        starIndex[planet] = DEAD;
+    }
+
+    public boolean isAlive(int planet) {
+        return starIndex[planet] != DEAD;
+    }
+
+    // Number of planets ever added, dead ones included
+    public int size() {
+        return size;
+    }
+
+    public double getX(int planet) {
+        return x[planet];
+    }
+
+    public double getY(int planet) {
+        return y[planet];
+    }
+
+    // Position blended between the previous and the current tick, alpha from 0 (previous) to 1 (current)
+    public double getX(int planet, double alpha) {
+        return previousX[planet] + (x[planet] - previousX[planet]) * alpha;
+    }
+
+    public double getY(int planet, double alpha) {
+        return previousY[planet] + (y[planet] - previousY[planet]) * alpha;
+    }
+
+    public int getRadius(int planet) {
+        return radius[planet];
+    }
+
+    public int getCivId(int planet) {
+        return civId[planet];
+    }
+
+    // Independent copy of every planet, e.g. for a snapshot taken between two ticks
+    public PlanetStore copy() {
+        PlanetStore copy = new PlanetStore(Math.max(1, size));
+        System.arraycopy(angle, 0, copy.angle, 0, size);
+        System.arraycopy(speed, 0, copy.speed, 0, size);
+        System.arraycopy(rotationCos, 0, copy.rotationCos, 0, size);
+        System.arraycopy(rotationSin, 0, copy.rotationSin, 0, size);
+        System.arraycopy(orbitDistance, 0, copy.orbitDistance, 0, size);
+        System.arraycopy(x, 0, copy.x, 0, size);
+        System.arraycopy(y, 0, copy.y, 0, size);
+        System.arraycopy(previousX, 0, copy.previousX, 0, size);
+        System.arraycopy(previousY, 0, copy.previousY, 0, size);
+        System.arraycopy(radius, 0, copy.radius, 0, size);
+        System.arraycopy(starIndex, 0, copy.starIndex, 0, size);
+        System.arraycopy(civId, 0, copy.civId, 0, size);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Append a planet with its complete state, used when restoring a snapshot.
+     * The rotation is derived from the speed exactly like in add().
+     */
+    void restore(double angle, double speed, double orbitDistance, double x, double y, double previousX,
+                 double previousY, int radius, int starIndex, int civId) {
+        ensureCapacity(size + 1);
+        int i = size++;
+        this.angle[i] = angle;
+        this.speed[i] = speed;
+        this.rotationCos[i] = Math.cos(speed);
+        this.rotationSin[i] = Math.sin(speed);
+        this.orbitDistance[i] = orbitDistance;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.previousX[i] = previousX;
+        this.previousY[i] = previousY;
+        this.radius[i] = radius;
+        this.starIndex[i] = starIndex;
+        this.civId[i] = civId;
+    }
+
+    // Grow the arrays once before adding many planets
+    void reserve(int capacity) {
+        ensureCapacity(capacity);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= starIndex.length) return;
+        int newCapacity = Math.max(capacity, starIndex.length * 2);
+        angle = Arrays.copyOf(angle, newCapacity);
+        speed = Arrays.copyOf(speed, newCapacity);
+        rotationCos = Arrays.copyOf(rotationCos, newCapacity);
+        rotationSin = Arrays.copyOf(rotationSin, newCapacity);
+        orbitDistance = Arrays.copyOf(orbitDistance, newCapacity);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        previousX = Arrays.copyOf(previousX, newCapacity);
+        previousY = Arrays.copyOf(previousY, newCapacity);
+        radius = Arrays.copyOf(radius, newCapacity);
+        starIndex = Arrays.copyOf(starIndex, newCapacity);
+        civId = Arrays.copyOf(civId, newCapacity);
+    }
+}
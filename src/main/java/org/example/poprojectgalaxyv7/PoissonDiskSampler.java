@@ -0,0 +1,142 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Bridson Poisson-disk sampling for discs of different radii: places discs inside a rectangle so that
+// no two are closer than the sum of their radii plus a gap. New discs are tried in an annulus around
+// already placed ones, and overlap checks only look at the 3x3 cells of a background grid whose cells
+// are as wide as the largest possible separation, so placing n discs takes O(n) time.
+public class PoissonDiskSampler {
+    // Candidates tried around one placed disc before it is retired
+    private static final int CANDIDATES_PER_DISC = 30;
+    // Random positions tried when no placed disc has room around it; gaps between clusters are often still free
+    private static final int FREE_SPOT_ATTEMPTS = 1000;
+
+    private final double width;
+    private final double height;
+    private final double padding;
+    private final double gap;
+
+    /**
+     * @param width   Width of the area
+     * @param height  Height of the area
+     * @param padding Space kept free along the edges of the area
+     * @param gap     Space kept free between two discs
+     */
+    public PoissonDiskSampler(double width, double height, double padding, double gap) {
+        this.width = width;
+        this.height = height;
+        this.padding = padding;
+        this.gap = gap;
+    }
+
+    /**
+     * Place discs in order until all are placed or the area is full.
+     *
+     * @param radii  Radius of every disc
+     * @param xs     Receives the x coordinate of every placed disc
+     * @param ys     Receives the y coordinate of every placed disc
+     * @param random Stream for candidate positions
+     * @return Number of discs placed; discs [0, result) have a position
+     */
+    public int sample(double[] radii, double[] xs, double[] ys, RandomGenerator random) {
+        int count = radii.length;
+        if (count == 0) return 0;
+
+        double maxRadius = 0;
+        for (double radius : radii) {
+            maxRadius = Math.max(maxRadius, radius);
+        }
+
+        // Two discs can only conflict when they are in neighbouring cells
+        double cellSize = 2 * maxRadius + gap;
+        int columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        int rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        int[] cellHead = new int[columns * rows];
+        Arrays.fill(cellHead, -1);
+        int[] next = new int[count];
+
+        int[] active = new int[count];
+        int activeCount = 0;
+        int placed = 0;
+
+        while (placed < count) {
+            double radius = radii[placed];
+            boolean found = false;
+
+            // Try around a random active disc, retiring discs whose surroundings are full
+            while (activeCount > 0 && !found) {
+                int slot = random.nextInt(activeCount);
+                int around = active[slot];
+                double minDistance = radii[around] + radius + gap;
+
+                for (int attempt = 0; attempt < CANDIDATES_PER_DISC; attempt++) {
+                    // Uniform over the annulus [minDistance, 2 * minDistance)
+                    double distance = minDistance * Math.sqrt(1 + 3 * random.nextDouble());
+                    double angle = random.nextDouble() * 2 * Math.PI;
+                    double x = xs[around] + distance * Math.cos(angle);
+                    double y = ys[around] + distance * Math.sin(angle);
+                    if (fits(x, y, radius, radii, xs, ys, cellHead, next, columns, rows, cellSize)) {
+                        xs[placed] = x;
+                        ys[placed] = y;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    active[slot] = active[--activeCount];
+                }
+            }
+
+            // No active disc left (or none yet): start a new region at a random free spot
+            for (int attempt = 0; attempt < FREE_SPOT_ATTEMPTS && !found; attempt++) {
+                double x = padding + radius + random.nextDouble() * (width - 2 * (padding + radius));
+                double y = padding + radius + random.nextDouble() * (height - 2 * (padding + radius));
+                if (fits(x, y, radius, radii, xs, ys, cellHead, next, columns, rows, cellSize)) {
+                    xs[placed] = x;
+                    ys[placed] = y;
+                    found = true;
+                }
+            }
+            if (!found) break;
+
+            int cell = cellIndex(xs[placed], ys[placed], columns, rows, cellSize);
+            next[placed] = cellHead[cell];
+            cellHead[cell] = placed;
+            active[activeCount++] = placed;
+            placed++;
+        }
+        return placed;
+    }
+
+    private boolean fits(double x, double y, double radius, double[] radii, double[] xs, double[] ys,
+                         int[] cellHead, int[] next, int columns, int rows, double cellSize) {
+        double margin = padding + radius;
+        if (x < margin || x > width - margin || y < margin || y > height - margin) {
+            return false;
+        }
+
+        int cellX = Math.min((int) (x / cellSize), columns - 1);
+        int cellY = Math.min((int) (y / cellSize), rows - 1);
+        for (int cy = Math.max(0, cellY - 1); cy <= Math.min(rows - 1, cellY + 1); cy++) {
+            for (int cx = Math.max(0, cellX - 1); cx <= Math.min(columns - 1, cellX + 1); cx++) {
+                for (int other = cellHead[cy * columns + cx]; other != -1; other = next[other]) {
+                    double dx = x - xs[other];
+                    double dy = y - ys[other];
+                    double minDistance = radius + radii[other] + gap;
+                    if (dx * dx + dy * dy < minDistance * minDistance) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int cellIndex(double x, double y, int columns, int rows, double cellSize) {
+        int cellX = Math.min((int) (x / cellSize), columns - 1);
+        int cellY = Math.min((int) (y / cellSize), rows - 1);
+        return cellY * columns + cellX;
+    }
+}
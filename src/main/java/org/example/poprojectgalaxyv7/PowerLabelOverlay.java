@@ -0,0 +1,192 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Power values shown above attacking and defending planets for a fixed number of ticks.
+// Labels come from a small pool that stays in the scene graph, so showing a value never creates a node,
+// and when the pool is empty the value is simply not shown. Every shown planet also gets an expiry in a
+// hashed timer wheel: one slot per tick, at least as many slots as the display duration, each slot an
+// intrusive list of planets. advance() only visits the planets expiring at that tick, and a planet shown
+// again is moved to its new slot in O(1).
+public class PowerLabelOverlay {
+    private static final int NONE = -1;
+
+    //ENCAPSULATION
+    private final Group layer = new Group();
+    private final Label[] labels;
+    private final int[] labelPlanet; // Planet shown by each label, NONE when free
+    private final int[] freeLabels;
+    private int freeLabelCount;
+    private final int duration;
+
+    // Timer wheel
+    private final int[] wheel;
+    private final int wheelMask;
+    private long tick = 0;
+
+    // Per-planet state
+    private long[] expiry = new long[0]; // Tick the planet expires at, NONE when not scheduled
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private int[] planetLabel = new int[0];
+
+    /**
+     * @param capacity The most labels shown at once
+     * @param duration Ticks a value stays shown
+     */
+    public PowerLabelOverlay(int capacity, int duration) {
+        this.duration = duration;
+        this.labels = new Label[capacity];
+        this.labelPlanet = new int[capacity];
+        this.freeLabels = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            Label label = new Label();
+            label.setTextFill(Color.WHITE);
+            label.setStyle("-fx-background-color: rgba(0,0,0,0.7); -fx-padding: 2px 5px; -fx-background-radius: 3;");
+            label.setVisible(false);
+            labels[i] = label;
+            labelPlanet[i] = NONE;
+            freeLabels[i] = capacity - 1 - i;
+        }
+        freeLabelCount = capacity;
+        layer.getChildren().addAll(labels);
+        layer.setMouseTransparent(true);
+
+        // A power of two at least as large as the duration, so a slot only ever holds one tick's expiries
+        wheel = new int[Integer.highestOneBit(Math.max(1, duration - 1)) << 1];
+        wheelMask = wheel.length - 1;
+        Arrays.fill(wheel, NONE);
+    }
+
+    public Node getView() {
+        return layer;
+    }
+
+    /**
+     * Forget every scheduled planet and hide all labels, for a simulation with the given number of planets.
+     */
+    public void reset(int planetCount) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labelPlanet[i] != NONE) {
+                releaseLabel(i);
+            }
+        }
+        Arrays.fill(wheel, NONE);
+        expiry = new long[planetCount];
+        Arrays.fill(expiry, NONE);
+        next = new int[planetCount];
+        prev = new int[planetCount];
+        planetLabel = new int[planetCount];
+        Arrays.fill(planetLabel, NONE);
+    }
+
+    /**
+     * Schedule a planet to expire after the display duration, and show its power if withLabel is set
+     * and a label is free. Showing a planet again restarts its duration.
+     */
+    public void show(int planet, int power, boolean withLabel, PlanetStore planets, Camera camera) {
+        if (expiry[planet] != NONE) {
+            unlink(planet);
+        }
+        link(planet, tick + duration);
+
+        if (!withLabel) return;
+        int label = planetLabel[planet];
+        if (label == NONE) {
+            if (freeLabelCount == 0) return;
+            label = freeLabels[--freeLabelCount];
+            labelPlanet[label] = planet;
+            planetLabel[planet] = label;
+            labels[label].setVisible(true);
+        }
+        labels[label].setText(String.valueOf(power));
+        position(labels[label], planets.x[planet], planets.y[planet] - planets.radius[planet], camera);
+    }
+
+    /**
+     * Move to the next tick and expire the planets scheduled for it.
+     *
+     * @param onExpired Receives every expired planet, after its label is hidden
+     */
+    public void advance(IntConsumer onExpired) {
+        tick++;
+        int slot = (int) (tick & wheelMask);
+        int planet = wheel[slot];
+        wheel[slot] = NONE;
+        while (planet != NONE) {
+            int following = next[planet];
+            expiry[planet] = NONE;
+            if (planetLabel[planet] != NONE) {
+                releaseLabel(planetLabel[planet]);
+            }
+            onExpired.accept(planet);
+            planet = following;
+        }
+    }
+
+    /**
+     * Drop a planet without reporting it, e.g. when its star exploded.
+     */
+    public void remove(int planet) {
+        if (expiry[planet] == NONE) return;
+        unlink(planet);
+        expiry[planet] = NONE;
+        if (planetLabel[planet] != NONE) {
+            releaseLabel(planetLabel[planet]);
+        }
+    }
+
+    /**
+     * Keep the shown labels above their moving planets.
+     */
+    public void updatePositions(PlanetStore planets, Camera camera, double alpha) {
+        for (int label = 0; label < labels.length; label++) {
+            int planet = labelPlanet[label];
+            if (planet == NONE) continue;
+            position(labels[label], planets.getX(planet, alpha), planets.getY(planet, alpha) - planets.radius[planet], camera);
+        }
+    }
+
+    // Place a label centered above the given world position, at the same screen size for every zoom
+    private static void position(Label label, double worldX, double worldTop, Camera camera) {
+        label.setLayoutX(camera.toScreenX(worldX) - label.getWidth() / 2);
+        label.setLayoutY(camera.toScreenY(worldTop) - 20);
+    }
+
+    private void releaseLabel(int label) {
+        labels[label].setVisible(false);
+        planetLabel[labelPlanet[label]] = NONE;
+        labelPlanet[label] = NONE;
+        freeLabels[freeLabelCount++] = label;
+    }
+
+    private void link(int planet, long expiresAt) {
+        int slot = (int) (expiresAt & wheelMask);
+        int head = wheel[slot];
+        expiry[planet] = expiresAt;
+        next[planet] = head;
+        prev[planet] = NONE;
+        if (head != NONE) {
+            prev[head] = planet;
+        }
+        wheel[slot] = planet;
+    }
+
+    private void unlink(int planet) {
+        int slot = (int) (expiry[planet] & wheelMask);
+        if (prev[planet] != NONE) {
+            next[prev[planet]] = next[planet];
+        } else {
+            wheel[slot] = next[planet];
+        }
+        if (next[planet] != NONE) {
+            prev[next[planet]] = prev[planet];
+        }
+    }
+}
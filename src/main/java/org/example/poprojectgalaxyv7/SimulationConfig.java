@@ -5,6 +5,11 @@ interface SimulationConfig {
     // Scene dimensions
     int SCENE_WIDTH = 1500;
     int SCENE_HEIGHT = 700;
+    int GALAXY_VIEW_WIDTH = SCENE_WIDTH - 380; // Scene width left between the side panels
+
+    // Camera zoom bounds
+    double MIN_ZOOM = 0.01;
+    double MAX_ZOOM = 8;
 
     // Default configuration values
     int DEFAULT_STARS_COUNT = 5;
@@ -13,14 +18,15 @@ interface SimulationConfig {
 
     // Slider range bounds
     int MIN_STARS_COUNT = 1;
-    int MAX_STARS_COUNT = 16;
+    int MAX_STARS_COUNT = 10000;
 
     int MIN_PLANETS_LOWER_BOUND = 1;
     int MAX_PLANETS_UPPER_BOUND = 16;
 
     // Configuration
-    int maxTries = 100; // Maximum attempts to place a star
     int screenBorderPadding = 20; // Padding from the screen edge
+    int starSystemGap = 10; // Minimum space between the outer orbits of two star systems
+    double STAR_PACKING_DENSITY = 0.5; // Share of the galaxy area the star systems are sized to cover
 
     // Sizing parameters
     int maxStarRadius = 45;
@@ -32,12 +38,34 @@ interface SimulationConfig {
 
     // Civilization parameters
     int civilizationInteractionChance = 2; // % chance per frame of interaction
-    int powerDisplayDuration = 120; // frames to display power when interacting
+    int interactionRange = 500; // Planets interact when closer than both radii plus this range
+    int ORBIT_RESYNC_INTERVAL = 1024; // ticks between exact trig positions, bounds the orbit integration error
+    int powerDisplayDuration = 120; // ticks to display power when interacting
+    int MAX_POWER_LABELS = 64; // Power labels visible at once, later attacks are only highlighted
+    int MAX_COLOR_TABLE_ROWS = 4; // Civilizations listed in the color table
+
+    // Explosion particles
+    int MAX_EXPLOSION_PARTICLES = 400; // Particles visible at once, later explosions get fewer
+    int PARTICLES_PER_EXPLOSION = 20;
+    long EXPLOSION_DURATION_MS = 800;
+
+    // Simulation speed parameters; the speed divides BASE_TICKS_PER_SECOND (higher is slower)
+    int DEFAULT_SIMULATION_SPEED = 1; // Default speed divisor
+    int MIN_SIMULATION_SPEED = 1; // Minimum speed divisor
+    int MAX_SIMULATION_SPEED = 10; // Maximum speed divisor
+    double BASE_TICKS_PER_SECOND = 60; // Ticks per second at speed 1
+    int MAX_TICKS_PER_FRAME = 5; // Catch-up limit when a frame arrives late
+
+    // Number of threads advancing star systems during a tick (1 = sequential)
+    int DEFAULT_PARALLELISM = 1;
+
+    // Simulation output parameters
+    long DEFAULT_OUTPUT_FLUSH_INTERVAL_MS = 1000; // How often the output writer flushes to disk
+    int OUTPUT_BUFFER_CAPACITY = 1 << 16; // Ints queued between the simulation and the output writer
 
-    // Simulation speed parameters
-    int DEFAULT_SIMULATION_SPEED = 1; // Default frames per tick
-    int MIN_SIMULATION_SPEED = 1; // Minimum frames per tick
-    int MAX_SIMULATION_SPEED = 10; // Maximum frames per tick
+    // Live telemetry, streamed as server-sent events on localhost
+    int TELEMETRY_PORT = 8089;
+    long TELEMETRY_SAMPLE_INTERVAL_MS = 200; // Time between telemetry frames
 
     // input file path
     String DEFAULT_GALAXY_CONFIG_FILE = "src/main/resources/galaxy_config.csv";
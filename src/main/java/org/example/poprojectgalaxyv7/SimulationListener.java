@@ -0,0 +1,43 @@
+package org.example.poprojectgalaxyv7;
+
+// INTERFACE
+// Receives simulation events from GalaxySimulation; every method has an empty default
+public interface SimulationListener {
+
+    /**
+     * Called after one planet attacked another during an interaction round.
+     *
+     * @param attacker The PlanetStore index of the attacking planet
+     * @param defender The PlanetStore index of the defending planet
+     * @param success  true if the defender was conquered
+     */
+    default void onPlanetAttacked(int attacker, int defender, boolean success) {
+    }
+
+    /**
+     * Called when a planet changes owner, before the matching onPlanetAttacked.
+     *
+     * @param planet           The PlanetStore index of the conquered planet
+     * @param fromCivilization The id of the civilization that lost the planet
+     * @param toCivilization   The id of the civilization that conquered it
+     */
+    default void onPlanetConquered(int planet, int fromCivilization, int toCivilization) {
+    }
+
+    /**
+     * Called after a star exploded. The star is already removed from the simulation
+     * and its planet range is marked dead in the PlanetStore.
+     *
+     * @param star The exploded star
+     */
+    default void onStarExploded(Star star) {
+    }
+
+    /**
+     * Called at the end of every interaction round (after interactions and star explosions).
+     *
+     * @param simulation The simulation that finished the round
+     */
+    default void onInteractionRound(GalaxySimulation simulation) {
+    }
+}
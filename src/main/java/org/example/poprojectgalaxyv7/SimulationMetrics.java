@@ -0,0 +1,204 @@
+package org.example.poprojectgalaxyv7;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Always-on metrics of one GalaxySimulation: a latency histogram per tick phase plus event counters and
+// live counts. Everything is written by the thread that ticks the simulation (the GUI records its own phases
+// on that same thread), so recording needs no locks or atomic read-modify-write; JMX reads from any thread.
+// register() publishes the metrics as a platform MXBean, e.g. for jconsole or Java Mission Control.
+public class SimulationMetrics implements SimulationMetricsMXBean {
+    public static final String OBJECT_NAME = "org.example.poprojectgalaxyv7:type=SimulationMetrics";
+
+    // Phases, indices into phases
+    static final int ORBIT_UPDATE = 0;
+    static final int INTERACTION_ROUND = 1;
+    static final int EXPLOSION_PROCESSING = 2;
+    static final int COLOR_TABLE_REFRESH = 3;
+    static final int OUTPUT_RECORDING = 4;
+    private static final int PHASE_COUNT = 5;
+
+    //ENCAPSULATION
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASE_COUNT];
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong interactionRounds = new AtomicLong();
+    private final AtomicLong attacks = new AtomicLong();
+    private final AtomicLong conquests = new AtomicLong();
+    private final AtomicLong explosions = new AtomicLong();
+    private volatile int livePlanets;
+    private volatile int liveCivilizations;
+    // Set by reset() on any thread, applied by the writer at the next tick
+    private volatile boolean resetRequested = false;
+
+    public SimulationMetrics() {
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            phases[phase] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Record the time from startNanos until now for a phase.
+     *
+     * @param phase      One of the phase constants
+     * @param startNanos System.nanoTime() at the start of the phase
+     */
+    void recordPhase(int phase, long startNanos) {
+        phases[phase].record(System.nanoTime() - startNanos);
+    }
+
+    void countTick() {
+        if (resetRequested) {
+            clear();
+        }
+        increment(ticks);
+    }
+
+    void countInteractionRound(int livePlanets, int liveCivilizations) {
+        increment(interactionRounds);
+        this.livePlanets = livePlanets;
+        this.liveCivilizations = liveCivilizations;
+    }
+
+    void countAttack(boolean success) {
+        increment(attacks);
+        if (success) {
+            increment(conquests);
+        }
+    }
+
+    void countExplosion() {
+        increment(explosions);
+    }
+
+    @Override
+    public long getTicks() {
+        return ticks.getAcquire();
+    }
+
+    @Override
+    public long getInteractionRounds() {
+        return interactionRounds.getAcquire();
+    }
+
+    @Override
+    public long getAttacks() {
+        return attacks.getAcquire();
+    }
+
+    @Override
+    public long getConquests() {
+        return conquests.getAcquire();
+    }
+
+    @Override
+    public long getExplosions() {
+        return explosions.getAcquire();
+    }
+
+    @Override
+    public int getLivePlanets() {
+        return livePlanets;
+    }
+
+    @Override
+    public int getLiveCivilizations() {
+        return liveCivilizations;
+    }
+
+    @Override
+    public PhaseTiming getOrbitUpdate() {
+        return PhaseTiming.of(phases[ORBIT_UPDATE]);
+    }
+
+    @Override
+    public PhaseTiming getInteractionRound() {
+        return PhaseTiming.of(phases[INTERACTION_ROUND]);
+    }
+
+    @Override
+    public PhaseTiming getExplosionProcessing() {
+        return PhaseTiming.of(phases[EXPLOSION_PROCESSING]);
+    }
+
+    @Override
+    public PhaseTiming getColorTableRefresh() {
+        return PhaseTiming.of(phases[COLOR_TABLE_REFRESH]);
+    }
+
+    @Override
+    public PhaseTiming getOutputRecording() {
+        return PhaseTiming.of(phases[OUTPUT_RECORDING]);
+    }
+
+    @Override
+    public void reset() {
+        resetRequested = true;
+    }
+
+    /**
+     * Publish these metrics under OBJECT_NAME, replacing the metrics of a previous simulation.
+     */
+    public void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering simulation metrics: " + e.getMessage());
+        }
+    }
+
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (InstanceNotFoundException e) {
+            // Not registered, or another simulation's metrics replaced these
+        } catch (JMException e) {
+            System.err.println("Error unregistering simulation metrics: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("Ticks: ").append(getTicks())
+                .append(", attacks: ").append(getAttacks())
+                .append(", conquests: ").append(getConquests())
+                .append(", explosions: ").append(getExplosions())
+                .append(", live planets: ").append(getLivePlanets())
+                .append(", live civilizations: ").append(getLiveCivilizations()).append('\n');
+        text.append("Orbit update: ").append(getOrbitUpdate()).append('\n');
+        text.append("Interaction round: ").append(getInteractionRound()).append('\n');
+        text.append("Explosion processing: ").append(getExplosionProcessing()).append('\n');
+        text.append("Color table refresh: ").append(getColorTableRefresh()).append('\n');
+        text.append("Output recording: ").append(getOutputRecording()).append('\n');
+        return text.toString();
+    }
+
+    private void clear() {
+        resetRequested = false;
+        for (LatencyHistogram phase : phases) {
+            phase.reset();
+        }
+        ticks.setRelease(0);
+        interactionRounds.setRelease(0);
+        attacks.setRelease(0);
+        conquests.setRelease(0);
+        explosions.setRelease(0);
+    }
+
+    // Single writer, so a plain read and a release store replace an atomic increment
+    private static void increment(AtomicLong counter) {
+        counter.setRelease(counter.getPlain() + 1);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.poprojectgalaxyv7;
+
+// INTERFACE
+// Management interface of SimulationMetrics, published as a platform MXBean
+public interface SimulationMetricsMXBean {
+
+    long getTicks();
+
+    long getInteractionRounds();
+
+    long getAttacks();
+
+    long getConquests();
+
+    long getExplosions();
+
+    // Sampled after every interaction round
+    int getLivePlanets();
+
+    int getLiveCivilizations();
+
+    PhaseTiming getOrbitUpdate();
+
+    PhaseTiming getInteractionRound();
+
+    PhaseTiming getExplosionProcessing();
+
+    PhaseTiming getColorTableRefresh();
+
+    PhaseTiming getOutputRecording();
+
+    // Clear every counter and histogram; takes effect on the simulation thread at the start of its next tick
+    void reset();
+}
@@ -1,114 +1,200 @@
 package org.example.poprojectgalaxyv7;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.*;
-import javafx.scene.paint.Color;
 
-public class SimulationOutput {
+// Writes one CSV row per civilization for every recorded tick. The simulation thread only enqueues
+// primitive tick records into a ring buffer; a background thread formats them and keeps the file open,
+// flushing every flushIntervalMillis and draining everything on close() or JVM shutdown.
+public class SimulationOutput implements SimulationRecorder {
+    private static final String HEADER = "Tick,RemainingStars,CivilizationID,Color,PlanetCount,Power";
+    // Ints per civilization in a tick record: id, ARGB color, planet count, power
+    private static final int CIVILIZATION_FIELDS = 4;
+    // Ints before the civilizations in a tick record: tick, remaining stars, civilization count
+    private static final int RECORD_HEADER_FIELDS = 3;
+
     //ENCAPSULATION
     private String outputFilePath;
     private int tickCounter;
     private boolean isActive;
 
-    public SimulationOutput(String filePath) {
-        this.outputFilePath = filePath;
-        this.tickCounter = 0;
-        this.isActive = true;
+    private final long flushIntervalMillis;
+    private IntRingBuffer buffer;
+    private Thread writerThread;
+    private Thread shutdownHook;
 
-        // Initialize the file with headers
-        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFilePath))) {
-            writer.println("Tick,RemainingStars,CivilizationID,Color,PlanetCount,Power");
-        } catch (IOException e) {
-            System.err.println("Error initializing output file: " + e.getMessage());
-            isActive = false;
-        }
+    // Reused by the simulation thread to build a record without allocating
+    private int[] liveCivilizations = new int[0];
+    private int[] record = new int[64];
+
+    public SimulationOutput(String filePath) {
+        this(filePath, SimulationConfig.DEFAULT_OUTPUT_FLUSH_INTERVAL_MS);
     }
 
     public SimulationOutput() {
         // Create a default file name with timestamp
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        this.outputFilePath = "galaxy_simulation_" + timestamp + ".csv";
+        this("galaxy_simulation_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv");
+    }
+
+    /**
+     * @param filePath            The CSV file to write, replaced if it exists
+     * @param flushIntervalMillis How often the writer thread flushes buffered rows to disk
+     */
+    public SimulationOutput(String filePath, long flushIntervalMillis) {
+        this.outputFilePath = filePath;
+        this.flushIntervalMillis = flushIntervalMillis;
         this.tickCounter = 0;
         this.isActive = true;
 
         // Initialize the file with headers
-        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFilePath))) {
-            writer.println("Tick,RemainingStars,CivilizationID,Color,PlanetCount,Power");
+        BufferedWriter writer;
+        try {
+            writer = new BufferedWriter(new FileWriter(outputFilePath));
+            writer.write(HEADER);
+            writer.newLine();
         } catch (IOException e) {
             System.err.println("Error initializing output file: " + e.getMessage());
             isActive = false;
+            return;
         }
+
+        buffer = new IntRingBuffer(SimulationConfig.OUTPUT_BUFFER_CAPACITY);
+        writerThread = new Thread(() -> runWriter(writer), "simulation-output-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        // Make sure queued ticks reach the file if the application exits without calling close()
+        shutdownHook = new Thread(this::drain, "simulation-output-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
-    public void recordTick(List<Star> stars) {
+    public String getOutputFilePath() {
+        return outputFilePath;
+    }
+
+    @Override
+    public void recordTick(GalaxySimulation simulation) {
         if (!isActive) return;
 
         tickCounter++;
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFilePath, true))) {
-            // Get unique civilizations
-            Map<Integer, CivilizationData> civilizationDataMap = new HashMap<>();
-
-            // Process all planets and civilizations
-            for (Star star : stars) {
-                for (Planet planet : star.planets) {
-                    int civId = planet.civilization.idCivilization;
-
-                    if (!civilizationDataMap.containsKey(civId)) {
-                        civilizationDataMap.put(civId, new CivilizationData(
-                            civId,
-                            colorToHex(planet.civilization.getColor()),
-                            planet.civilization.getPowerPoints()
-                        ));
-                    }
+        // Only the civilizations that own planets, from the simulation's running counts
+        CivilizationRegistry civilizations = simulation.getCivilizations();
+        CivilizationAggregates aggregates = simulation.getCivilizationAggregates();
+        if (liveCivilizations.length < aggregates.getLiveCivilizationCount()) {
+            liveCivilizations = new int[civilizations.size()];
+        }
+        int civilizationCount = aggregates.copyLiveCivilizations(liveCivilizations);
+
+        int length = RECORD_HEADER_FIELDS + civilizationCount * CIVILIZATION_FIELDS;
+        if (record.length < length) {
+            record = new int[Math.max(length, record.length * 2)];
+        }
+        record[0] = tickCounter;
+        record[1] = simulation.getStars().size();
+        record[2] = civilizationCount;
+
+        int position = RECORD_HEADER_FIELDS;
+        for (int i = 0; i < civilizationCount; i++) {
+            int civId = liveCivilizations[i];
+            Civilization civilization = civilizations.get(civId);
+            record[position++] = civId;
+            record[position++] = civilization.getColorArgb();
+            record[position++] = aggregates.getPlanetCount(civId);
+            record[position++] = civilization.getPowerPoints();
+        }
+
+        try {
+            // Ticks recorded while the JVM shuts down are dropped once the buffer is closed
+            buffer.put(record, length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-                    // Increment planet count for this civilization
-                    civilizationDataMap.get(civId).incrementPlanetCount();
+    /**
+     * Write every queued tick to the file and close it. The output cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (!isActive) return;
+        isActive = false;
+        drain();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down, the hook is running or ran
+        }
+    }
+
+    private void drain() {
+        buffer.close();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter(BufferedWriter writer) {
+        int[] chunk = new int[4096];
+        int[] fields = new int[RECORD_HEADER_FIELDS + CIVILIZATION_FIELDS];
+        int fieldIndex = 0;
+        int civilizationsLeft = 0;
+        StringBuilder row = new StringBuilder(64);
+        long lastFlush = System.currentTimeMillis();
+
+        try (writer) {
+            while (true) {
+                int count = buffer.take(chunk, flushIntervalMillis);
+                if (count == 0 && buffer.isClosedAndEmpty()) break;
+
+                // Records can be split across chunks, so parse them field by field
+                for (int i = 0; i < count; i++) {
+                    fields[fieldIndex++] = chunk[i];
+                    if (fieldIndex == RECORD_HEADER_FIELDS && civilizationsLeft == 0) {
+                        civilizationsLeft = fields[2];
+                        if (civilizationsLeft == 0) fieldIndex = 0;
+                    } else if (fieldIndex == RECORD_HEADER_FIELDS + CIVILIZATION_FIELDS) {
+                        writeRow(writer, row, fields);
+                        fieldIndex = RECORD_HEADER_FIELDS;
+                        if (--civilizationsLeft == 0) fieldIndex = 0;
+                    }
                 }
-            }
 
-            // Write data for each civilization
-            for (CivilizationData data : civilizationDataMap.values()) {
-                writer.println(String.format("%d,%d,%d,%s,%d,%d",
-                    tickCounter,
-                    stars.size(),
-                    data.id,
-                    data.colorHex,
-                    data.planetCount,
-                    data.power
-                ));
+                long now = System.currentTimeMillis();
+                if (now - lastFlush >= flushIntervalMillis) {
+                    writer.flush();
+                    lastFlush = now;
+                }
             }
         } catch (IOException e) {
             System.err.println("Error writing to output file: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    private String colorToHex(Color color) {
-        return String.format("#%02X%02X%02X",
-            (int)(color.getRed() * 255),
-            (int)(color.getGreen() * 255),
-            (int)(color.getBlue() * 255));
+    private void writeRow(BufferedWriter writer, StringBuilder row, int[] fields) throws IOException {
+        row.setLength(0);
+        row.append(fields[0]).append(',')
+                .append(fields[1]).append(',')
+                .append(fields[3]).append(',');
+        appendColorHex(row, fields[4]);
+        row.append(',').append(fields[5])
+                .append(',').append(fields[6]);
+        writer.append(row);
+        writer.newLine();
     }
 
-    private static class CivilizationData {
-        int id;
-        String colorHex;
-        int planetCount;
-        int power;
-
-        CivilizationData(int id, String colorHex, int power) {
-            this.id = id;
-            this.colorHex = colorHex;
-            this.planetCount = 0;
-            this.power = power;
-        }
-
-        void incrementPlanetCount() {
-            planetCount++;
+    // #RRGGBB of an ARGB color, without the String.format cost per row
+    static void appendColorHex(StringBuilder row, int argb) {
+        row.append('#');
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            row.append(Character.toUpperCase(Character.forDigit((argb >> shift) & 0xF, 16)));
         }
     }
 }
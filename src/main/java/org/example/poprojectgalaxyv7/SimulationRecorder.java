@@ -0,0 +1,18 @@
+package org.example.poprojectgalaxyv7;
+
+// INTERFACE
+// Destination for the per-civilization state recorded after every interaction round
+public interface SimulationRecorder {
+
+    /**
+     * Record the current state of every civilization that still owns planets.
+     *
+     * @param simulation The simulation to record
+     */
+    void recordTick(GalaxySimulation simulation);
+
+    /**
+     * Write everything recorded so far and release the output. Recording afterwards is ignored.
+     */
+    void close();
+}
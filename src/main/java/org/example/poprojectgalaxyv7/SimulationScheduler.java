@@ -0,0 +1,80 @@
+package org.example.poprojectgalaxyv7;
+
+// Fixed-timestep clock for driving a simulation from a variable frame rate.
+// Every frame reports the current time; the scheduler answers how many ticks are due so that the simulation
+// advances at ticksPerSecond regardless of the display refresh rate. When a frame arrives late the missing
+// ticks are caught up, but never more than maxStepsPerFrame at once: beyond that the backlog is dropped
+// so a stall does not turn into a burst of work that causes the next stall.
+public class SimulationScheduler {
+    //ENCAPSULATION
+    private long tickIntervalNanos;
+    private final int maxStepsPerFrame;
+    private long accumulatorNanos = 0;
+    private long lastFrameNanos = -1;
+
+    /**
+     * @param ticksPerSecond   Target simulation rate, above 0
+     * @param maxStepsPerFrame Most ticks returned by a single frame(), at least 1
+     */
+    public SimulationScheduler(double ticksPerSecond, int maxStepsPerFrame) {
+        if (maxStepsPerFrame < 1) {
+            throw new IllegalArgumentException("Max steps per frame must be at least 1: " + maxStepsPerFrame);
+        }
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        this.tickIntervalNanos = tickInterval(ticksPerSecond);
+    }
+
+    public void setTicksPerSecond(double ticksPerSecond) {
+        this.tickIntervalNanos = tickInterval(ticksPerSecond);
+    }
+
+    public double getTicksPerSecond() {
+        return 1_000_000_000.0 / tickIntervalNanos;
+    }
+
+    /**
+     * Account for the time since the previous frame.
+     *
+     * @param nowNanos The frame time, e.g. the AnimationTimer timestamp
+     * @return Number of ticks to run before rendering this frame
+     */
+    public int frame(long nowNanos) {
+        if (lastFrameNanos < 0) {
+            // The first frame only starts the clock
+            lastFrameNanos = nowNanos;
+            return 0;
+        }
+        accumulatorNanos += nowNanos - lastFrameNanos;
+        lastFrameNanos = nowNanos;
+
+        long due = accumulatorNanos / tickIntervalNanos;
+        if (due > maxStepsPerFrame) {
+            // Too far behind, keep the fraction of a tick and drop the rest
+            accumulatorNanos = accumulatorNanos % tickIntervalNanos;
+            return maxStepsPerFrame;
+        }
+        accumulatorNanos -= due * tickIntervalNanos;
+        return (int) due;
+    }
+
+    /**
+     * @return How far the current time is between the last tick and the next one, from 0 to 1.
+     * Renderers blend the previous and the current simulation state with this factor.
+     */
+    public double getAlpha() {
+        return (double) accumulatorNanos / tickIntervalNanos;
+    }
+
+    private static long tickInterval(double ticksPerSecond) {
+        if (!(ticksPerSecond > 0)) {
+            throw new IllegalArgumentException("Ticks per second must be above 0: " + ticksPerSecond);
+        }
+        return Math.max(1, Math.round(1_000_000_000L / ticksPerSecond));
+    }
+
+    // Forget elapsed time, e.g. after the animation was paused
+    public void reset() {
+        lastFrameNanos = -1;
+        accumulatorNanos = 0;
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.poprojectgalaxyv7;
+
+import javafx.scene.paint.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+// Complete state of a GalaxySimulation between two ticks: parameters, tick counter, random streams,
+// every live star, every planet and every civilization. GalaxySimulation.snapshot() only copies arrays,
+// so taking one costs far less than a frame; writing the file can then happen on another thread.
+// GalaxySimulation.restore() continues the run exactly where the snapshot was taken.
+public class SimulationSnapshot {
+    public static final String FILE_EXTENSION = ".gsnap";
+
+    private static final int MAGIC = 0x47534E50; // "GSNP"
+    private static final int VERSION = 2;
+    static final byte STABLE_STAR = 0;
+    static final byte VOLATILE_STAR = 1;
+    // Encoded size of one star, planet and civilization, to check counts against the input before allocating
+    private static final int STAR_BYTES = Byte.BYTES + 2 * Double.BYTES + 6 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int PLANET_BYTES = 7 * Double.BYTES + Short.BYTES + 2 * Integer.BYTES;
+    private static final int CIVILIZATION_BYTES = 4 * Double.BYTES + Integer.BYTES;
+
+    // Simulation parameters and counters
+    int starsCount;
+    int minPlanetsPerStar;
+    int maxPlanetsPerStar;
+    long tickCount;
+    int orbitResyncInterval;
+    int interactionChance = SimulationConfig.civilizationInteractionChance;
+    int interactionRange = SimulationConfig.interactionRange;
+    double worldWidth;
+    double worldHeight;
+
+    // Seed and gamma of the root, placement and interaction streams
+    long[] randomState = new long[6];
+
+    // Live stars, one entry per star in simulation order
+    byte[] starTypes;
+    double[] starX;
+    double[] starY;
+    int[] starRadius;
+    int[] orbitSpacing;
+    int[] explosionPoints;
+    int[] idStar;
+    int[] starIndex;
+    int[] firstPlanet;
+    int[] planetCount;
+    long[] starSeed;
+    long[] starGamma;
+
+    // Every planet ever created, dead ones included so planet indices stay the same
+    PlanetStore planets;
+
+    // Every civilization, indexed by id
+    Color[] civilizationColors;
+    int[] civilizationPowers;
+
+    SimulationSnapshot() {
+    }
+
+    void allocateStars(int count) {
+        starTypes = new byte[count];
+        starX = new double[count];
+        starY = new double[count];
+        starRadius = new int[count];
+        orbitSpacing = new int[count];
+        explosionPoints = new int[count];
+        idStar = new int[count];
+        starIndex = new int[count];
+        firstPlanet = new int[count];
+        planetCount = new int[count];
+        starSeed = new long[count];
+        starGamma = new long[count];
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Write the snapshot to a file, replacing it if it exists.
+     */
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            writeTo(out);
+        }
+    }
+
+    // Encode the snapshot into an open stream, so other formats can embed it
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        out.writeInt(starsCount);
+        out.writeInt(minPlanetsPerStar);
+        out.writeInt(maxPlanetsPerStar);
+        out.writeLong(tickCount);
+        out.writeInt(orbitResyncInterval);
+        out.writeInt(interactionChance);
+        out.writeInt(interactionRange);
+        out.writeDouble(worldWidth);
+        out.writeDouble(worldHeight);
+        for (long state : randomState) {
+            out.writeLong(state);
+        }
+
+        out.writeInt(starTypes.length);
+        for (int i = 0; i < starTypes.length; i++) {
+            out.writeByte(starTypes[i]);
+            out.writeDouble(starX[i]);
+            out.writeDouble(starY[i]);
+            out.writeInt(starRadius[i]);
+            out.writeInt(orbitSpacing[i]);
+            out.writeInt(explosionPoints[i]);
+            out.writeInt(idStar[i]);
+            out.writeInt(starIndex[i]);
+            out.writeInt(firstPlanet[i]);
+            out.writeInt(planetCount[i]);
+            out.writeLong(starSeed[i]);
+            out.writeLong(starGamma[i]);
+        }
+
+        out.writeInt(planets.size());
+        for (int i = 0; i < planets.size(); i++) {
+            out.writeDouble(planets.angle[i]);
+            out.writeDouble(planets.speed[i]);
+            out.writeDouble(planets.orbitDistance[i]);
+            out.writeDouble(planets.x[i]);
+            out.writeDouble(planets.y[i]);
+            out.writeDouble(planets.previousX[i]);
+            out.writeDouble(planets.previousY[i]);
+            out.writeShort(planets.radius[i]);
+            out.writeInt(planets.starIndex[i]);
+            out.writeInt(planets.civId[i]);
+        }
+
+        out.writeInt(civilizationColors.length);
+        for (int i = 0; i < civilizationColors.length; i++) {
+            // Full precision, so a restored run renders and records exactly the same colors
+            Color color = civilizationColors[i];
+            out.writeDouble(color.getRed());
+            out.writeDouble(color.getGreen());
+            out.writeDouble(color.getBlue());
+            out.writeDouble(color.getOpacity());
+            out.writeInt(civilizationPowers[i]);
+        }
+    }
+
+    /**
+     * Write the snapshot on a background thread. The snapshot holds its own copy of the state,
+     * so the simulation can keep ticking meanwhile.
+     *
+     * @return Completes when the file is written, or exceptionally with an UncheckedIOException
+     */
+    public CompletableFuture<Void> writeAsync(Path file) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                write(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static SimulationSnapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return readFrom(in, Files.size(file));
+        } catch (IOException e) {
+            throw new IOException(e.getMessage() + ": " + file, e);
+        }
+    }
+
+    /**
+     * Decode a snapshot written by writeTo().
+     *
+     * @param available Bytes left in the input, the counts read from it are checked against this
+     */
+    static SimulationSnapshot readFrom(DataInputStream in, long available) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a simulation snapshot");
+        }
+        int version = in.readInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        SimulationSnapshot snapshot = new SimulationSnapshot();
+        // Magic, version, parameters and counters, world size and random streams
+        long remaining = available - 2 * Integer.BYTES - 4 * Integer.BYTES - Long.BYTES
+                - (version >= 2 ? 2 * Integer.BYTES : 0) - 2 * Double.BYTES
+                - (long) snapshot.randomState.length * Long.BYTES;
+        snapshot.starsCount = in.readInt();
+        snapshot.minPlanetsPerStar = in.readInt();
+        snapshot.maxPlanetsPerStar = in.readInt();
+        snapshot.tickCount = in.readLong();
+        snapshot.orbitResyncInterval = in.readInt();
+        // Version 1 had no interaction tuning and keeps the defaults
+        if (version >= 2) {
+            snapshot.interactionChance = in.readInt();
+            snapshot.interactionRange = in.readInt();
+        }
+        snapshot.worldWidth = in.readDouble();
+        snapshot.worldHeight = in.readDouble();
+        for (int i = 0; i < snapshot.randomState.length; i++) {
+            snapshot.randomState[i] = in.readLong();
+        }
+
+        int starCount = readCount(in, remaining, STAR_BYTES, "stars");
+        remaining -= Integer.BYTES + (long) starCount * STAR_BYTES;
+        snapshot.allocateStars(starCount);
+        for (int i = 0; i < snapshot.starTypes.length; i++) {
+            snapshot.starTypes[i] = in.readByte();
+            snapshot.starX[i] = in.readDouble();
+            snapshot.starY[i] = in.readDouble();
+            snapshot.starRadius[i] = in.readInt();
+            snapshot.orbitSpacing[i] = in.readInt();
+            snapshot.explosionPoints[i] = in.readInt();
+            snapshot.idStar[i] = in.readInt();
+            snapshot.starIndex[i] = in.readInt();
+            snapshot.firstPlanet[i] = in.readInt();
+            snapshot.planetCount[i] = in.readInt();
+            snapshot.starSeed[i] = in.readLong();
+            snapshot.starGamma[i] = in.readLong();
+        }
+
+        int planetCount = readCount(in, remaining, PLANET_BYTES, "planets");
+        remaining -= Integer.BYTES + (long) planetCount * PLANET_BYTES;
+        snapshot.planets = new PlanetStore(Math.max(1, planetCount));
+        for (int i = 0; i < planetCount; i++) {
+            snapshot.planets.restore(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readDouble(), in.readDouble(), in.readDouble(), in.readUnsignedShort(), in.readInt(),
+                    in.readInt());
+        }
+
+        int civilizationCount = readCount(in, remaining, CIVILIZATION_BYTES, "civilizations");
+        snapshot.civilizationColors = new Color[civilizationCount];
+        snapshot.civilizationPowers = new int[civilizationCount];
+        for (int i = 0; i < civilizationCount; i++) {
+            snapshot.civilizationColors[i] = Color.color(in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readDouble());
+            snapshot.civilizationPowers[i] = in.readInt();
+        }
+        return snapshot;
+    }
+
+    // Read an element count, rejecting one that is negative or needs more bytes than the input has left
+    private static int readCount(DataInputStream in, long remaining, int elementBytes, String elements)
+            throws IOException {
+        int count = in.readInt();
+        if (count < 0 || (long) count * elementBytes > remaining - Integer.BYTES) {
+            throw new IOException("Corrupt simulation snapshot, " + count + " " + elements + " in "
+                    + remaining + " bytes");
+        }
+        return count;
+    }
+}
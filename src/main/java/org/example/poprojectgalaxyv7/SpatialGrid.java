@@ -0,0 +1,199 @@
+package org.example.poprojectgalaxyv7;
+
+import java.util.Arrays;
+
+// Spatial hash over planet positions. Space is split into square cells of cellSize, and every cell is hashed
+// into a fixed bucket table, so the grid works for any coordinate range. Entries are identified by an int id
+// and linked into their bucket through the next/prev arrays in id order; moving an entry only relinks it
+// when its cell changes.
+public class SpatialGrid {
+
+    /**
+     * Receives candidate pairs from {@link #forEachCandidatePair(PairVisitor)}.
+     */
+    public interface PairVisitor {
+        void visit(int first, int second);
+    }
+
+    private static final int NONE = -1;
+
+    private final double cellSize;
+    private int[] bucketHeads;
+    private int bucketMask;
+
+    // Per-id data
+    private int[] cellX = new int[0];
+    private int[] cellY = new int[0];
+    private int[] bucket = new int[0]; // NONE when the id is not in the grid
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private int size = 0;
+
+    /**
+     * Create a grid whose cells are cellSize wide. Two points closer than cellSize
+     * are always in the same or in neighbouring cells.
+     *
+     * @param cellSize The width of one cell, at least the largest query distance
+     */
+    public SpatialGrid(double cellSize) {
+        this.cellSize = cellSize;
+        this.bucketHeads = new int[16];
+        this.bucketMask = bucketHeads.length - 1;
+        Arrays.fill(bucketHeads, NONE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add an entry at the given position.
+     *
+     * @param id The entry id, a small non-negative int
+     * @param x  The x position
+     * @param y  The y position
+     */
+    public void insert(int id, double x, double y) {
+        ensureCapacity(id + 1);
+        if (bucket[id] != NONE) {
+            move(id, x, y);
+            return;
+        }
+        cellX[id] = cellOf(x);
+        cellY[id] = cellOf(y);
+        link(id);
+        size++;
+
+        // Keep the load factor under 1 so bucket chains stay short
+        if (size > bucketHeads.length) {
+            rehash(bucketHeads.length * 2);
+        }
+    }
+
+    /**
+     * Update the position of an entry. Only touches the bucket lists if the entry changed cells.
+     */
+    public void move(int id, double x, double y) {
+        int cx = cellOf(x);
+        int cy = cellOf(y);
+        if (cx == cellX[id] && cy == cellY[id]) {
+            return;
+        }
+        unlink(id);
+        cellX[id] = cx;
+        cellY[id] = cy;
+        link(id);
+    }
+
+    public void remove(int id) {
+        if (id >= bucket.length || bucket[id] == NONE) {
+            return;
+        }
+        unlink(id);
+        size--;
+    }
+
+    public void clear() {
+        Arrays.fill(bucketHeads, NONE);
+        Arrays.fill(bucket, NONE);
+        size = 0;
+    }
+
+    /**
+     * Visit every pair of entries that are in the same or in adjacent cells, each unordered pair once.
+     * Pairs are visited in increasing order of the first id, so the order only depends on the grid content.
+     */
+    public void forEachCandidatePair(PairVisitor visitor) {
+        for (int id = 0; id < bucket.length; id++) {
+            if (bucket[id] == NONE) continue;
+            int cx = cellX[id];
+            int cy = cellY[id];
+
+            // Same cell: only partners with a higher id, so each pair is seen once
+            visitCell(id, cx, cy, true, visitor);
+            // Half of the neighbourhood, the other half is covered from the neighbour's side
+            visitCell(id, cx + 1, cy, false, visitor);
+            visitCell(id, cx - 1, cy + 1, false, visitor);
+            visitCell(id, cx, cy + 1, false, visitor);
+            visitCell(id, cx + 1, cy + 1, false, visitor);
+        }
+    }
+
+    private void visitCell(int id, int cx, int cy, boolean sameCell, PairVisitor visitor) {
+        // Buckets can hold several cells, so filter on the exact cell coordinates
+        for (int other = bucketHeads[hash(cx, cy)]; other != NONE; other = next[other]) {
+            if (cellX[other] != cx || cellY[other] != cy) continue;
+            if (sameCell && other <= id) continue;
+            visitor.visit(id, other);
+        }
+    }
+
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private int hash(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & bucketMask;
+    }
+
+    // Chains are kept sorted by id, so the order entries are visited in does not depend on the order
+    // they were inserted or moved in. A restored simulation rebuilds its grid in id order and must still
+    // visit pairs in the same order as the run it was saved from.
+    private void link(int id) {
+        int b = hash(cellX[id], cellY[id]);
+        int before = NONE;
+        int after = bucketHeads[b];
+        while (after != NONE && after < id) {
+            before = after;
+            after = next[after];
+        }
+        next[id] = after;
+        prev[id] = before;
+        if (after != NONE) {
+            prev[after] = id;
+        }
+        if (before != NONE) {
+            next[before] = id;
+        } else {
+            bucketHeads[b] = id;
+        }
+        bucket[id] = b;
+    }
+
+    private void unlink(int id) {
+        int b = bucket[id];
+        if (prev[id] != NONE) {
+            next[prev[id]] = next[id];
+        } else {
+            bucketHeads[b] = next[id];
+        }
+        if (next[id] != NONE) {
+            prev[next[id]] = prev[id];
+        }
+        bucket[id] = NONE;
+    }
+
+    private void rehash(int bucketCount) {
+        bucketHeads = new int[bucketCount];
+        bucketMask = bucketCount - 1;
+        Arrays.fill(bucketHeads, NONE);
+        // Highest id first, so every link lands at the head of its sorted chain
+        for (int id = bucket.length - 1; id >= 0; id--) {
+            if (bucket[id] != NONE) {
+                link(id);
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= bucket.length) return;
+        int newCapacity = Math.max(capacity, bucket.length * 2);
+        int oldCapacity = bucket.length;
+        cellX = Arrays.copyOf(cellX, newCapacity);
+        cellY = Arrays.copyOf(cellY, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        bucket = Arrays.copyOf(bucket, newCapacity);
+        Arrays.fill(bucket, oldCapacity, newCapacity, NONE);
+    }
+}
@@ -1,8 +1,8 @@
 package org.example.poprojectgalaxyv7;
 
 public class StableStar extends Star {
-    public StableStar(double x, double y, int radius) {
-        super(x, y, radius);
+    public StableStar(double x, double y, int radius, GalaxyRandom random) {
+        super(x, y, radius, random);
     }
 
     @Override
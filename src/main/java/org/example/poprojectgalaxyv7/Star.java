@@ -2,28 +2,29 @@ package org.example.poprojectgalaxyv7;
 
 import javafx.scene.shape.Circle;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 // ABSTRACT CLASS
 // Star class to track related planets
 public abstract class Star implements SimulationConfig {
     double x, y;
     int radius;
     int orbitSpacing;
+    // Position of the star in the simulation's star array (stays the same after other stars explode)
+    int index;
     // AGGREGATION
-    List<Planet> planets = new ArrayList<>();
-    List<Integer> orbitDistances = new ArrayList<>();// Track orbit distances
+    // The planets of this star are the PlanetStore indices [firstPlanet, firstPlanet + planetCount)
+    int firstPlanet;
+    int planetCount;
     protected static final int MIN_EXPLOSION = 1;
     protected static final int MAX_EXPLOSION = 100;
-    protected static final Random random = new Random();
+    // Random stream of this star system, used for the star and for creating its planets and civilizations
+    GalaxyRandom random;
     int explosionPoints;
     int idStar;
     // COMPOSITION
     Circle starCircle;
 
-    public Star(double x, double y, int radius) {
+    public Star(double x, double y, int radius, GalaxyRandom random) {
+        this.random = random;
         this.x = x;
         this.y = y;
         this.radius = radius;
@@ -44,6 +45,16 @@ public abstract class Star implements SimulationConfig {
         return explosionPoints >= 100;
     }
 
+    // Orbit distance of the given orbit, the first orbit is one full spacing away from the star edge
+    public int orbitDistance(int orbit) {
+        return radius + ((orbit + 1) * orbitSpacing);
+    }
+
+    // Distance from the star center to the far edge of its outermost planet
+    public int systemRadius() {
+        return GalaxySimulation.calculateMaxOrbitRadiusForStar(radius, planetCount, orbitSpacing);
+    }
+
     // Method to associate the visual representation with the star
     public void setStarCircle(Circle starCircle) {
         this.starCircle = starCircle;
@@ -0,0 +1,18 @@
+package org.example.poprojectgalaxyv7;
+
+/**
+ * One star system given explicitly in a configuration file instead of being placed at random.
+ *
+ * @param x           World x of the star
+ * @param y           World y of the star
+ * @param radius      Star radius
+ * @param planetCount Planets orbiting the star
+ * @param type        RANDOM, STABLE or VOLATILE
+ * @param power       Starting power of the system's civilizations, RANDOM_POWER to draw it
+ */
+public record StarSystemDefinition(double x, double y, int radius, int planetCount, int type, int power) {
+    public static final int RANDOM = 0;
+    public static final int STABLE = 1;
+    public static final int VOLATILE = 2;
+    public static final int RANDOM_POWER = 0;
+}
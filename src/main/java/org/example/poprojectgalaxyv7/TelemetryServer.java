@@ -0,0 +1,222 @@
+package org.example.poprojectgalaxyv7;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Streams the per-civilization tick aggregates (the data SimulationOutput records) as server-sent events on
+// http://localhost:<port>/telemetry, independent of the output file.
+//
+// The engine's arrays must only be read by the tick thread, so sampling is split in two. A sampler thread
+// requests a sample every sampleIntervalMillis while clients are connected; the tick thread answers at the end
+// of its next interaction round by copying the live civilizations' aggregates into a fresh int array, an
+// O(civilizations) copy, and does nothing otherwise. The sampler then formats that array once and offers the
+// frame to every client. Each client has a single frame slot written by its own thread: a client that reads
+// slower than the frames arrive skips the frames it missed and always gets the newest one, so it can neither
+// block the sampler nor make memory grow.
+public class TelemetryServer implements SimulationListener, AutoCloseable {
+    public static final String PATH = "/telemetry";
+    // Comment line sent when no frame arrived for this long, so closed connections are noticed
+    private static final long KEEP_ALIVE_MILLIS = 15_000;
+
+    // Ints in a sample: tick (high and low half), remaining stars, civilization count,
+    // then per civilization id, ARGB, planets, power
+    private static final int HEADER_FIELDS = 4;
+    private static final int CIVILIZATION_FIELDS = 4;
+
+    //ENCAPSULATION
+    private final HttpServer server;
+    private final ExecutorService clientThreads;
+    private final ScheduledExecutorService sampler;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    // Handshake between the sampler and the tick thread
+    private volatile boolean sampleRequested = false;
+    private volatile int[] latestSample;
+    private int[] sentSample; // Sampler thread only
+
+    // Tick thread only
+    private int[] liveCivilizations = new int[0];
+
+    /**
+     * Start serving on the loopback interface.
+     *
+     * @param port                 The TCP port, 0 for any free port
+     * @param sampleIntervalMillis Time between frames
+     */
+    public TelemetryServer(int port, long sampleIntervalMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this::handle);
+        // Every connected client keeps one thread busy writing its frames
+        clientThreads = Executors.newCachedThreadPool(task -> daemon(task, "telemetry-client"));
+        server.setExecutor(clientThreads);
+        server.start();
+
+        sampler = Executors.newSingleThreadScheduledExecutor(task -> daemon(task, "telemetry-sampler"));
+        sampler.scheduleAtFixedRate(this::sample, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    // Frames replaced by a newer one before a slow client could take them
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    @Override
+    public void onInteractionRound(GalaxySimulation simulation) {
+        if (!sampleRequested) return;
+        sampleRequested = false;
+
+        CivilizationRegistry civilizations = simulation.getCivilizations();
+        CivilizationAggregates aggregates = simulation.getCivilizationAggregates();
+        if (liveCivilizations.length < aggregates.getLiveCivilizationCount()) {
+            liveCivilizations = new int[civilizations.size()];
+        }
+        int civilizationCount = aggregates.copyLiveCivilizations(liveCivilizations);
+
+        // A new array every sample, so the sampler can read it while the next one is built
+        int[] sample = new int[HEADER_FIELDS + civilizationCount * CIVILIZATION_FIELDS];
+        long tick = simulation.getTickCount();
+        sample[0] = (int) (tick >>> 32);
+        sample[1] = (int) tick;
+        sample[2] = simulation.getStars().size();
+        sample[3] = civilizationCount;
+        int position = HEADER_FIELDS;
+        for (int i = 0; i < civilizationCount; i++) {
+            int civId = liveCivilizations[i];
+            Civilization civilization = civilizations.get(civId);
+            sample[position++] = civId;
+            sample[position++] = civilization.getColorArgb();
+            sample[position++] = aggregates.getPlanetCount(civId);
+            sample[position++] = civilization.getPowerPoints();
+        }
+        latestSample = sample;
+    }
+
+    // Sampler thread: send the sample taken since the last run, then ask for the next one
+    private void sample() {
+        int[] sample = latestSample;
+        if (sample != null && sample != sentSample) {
+            sentSample = sample;
+            byte[] frame = formatFrame(sample);
+            for (Client client : clients) {
+                client.offer(frame);
+            }
+        }
+        // Without clients the tick thread does no telemetry work at all
+        sampleRequested = !clients.isEmpty();
+    }
+
+    // id: <tick>, event: tick, data: {"tick":..,"remainingStars":..,"civilizations":[{"id":..,...},..]}
+    private static byte[] formatFrame(int[] sample) {
+        long tick = ((long) sample[0] << 32) | (sample[1] & 0xFFFFFFFFL);
+        StringBuilder frame = new StringBuilder(64 + sample[3] * 64);
+        frame.append("id: ").append(tick).append("\nevent: tick\ndata: {\"tick\":").append(tick)
+                .append(",\"remainingStars\":").append(sample[2])
+                .append(",\"civilizations\":[");
+        for (int i = 0; i < sample[3]; i++) {
+            int position = HEADER_FIELDS + i * CIVILIZATION_FIELDS;
+            if (i > 0) frame.append(',');
+            frame.append("{\"id\":").append(sample[position])
+                    .append(",\"color\":\"");
+            SimulationOutput.appendColorHex(frame, sample[position + 1]);
+            frame.append("\",\"planets\":").append(sample[position + 2])
+                    .append(",\"power\":").append(sample[position + 3]).append('}');
+        }
+        frame.append("]}\n\n");
+        return frame.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Client thread: stream frames until the client disconnects or the server closes
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        Client client = new Client();
+        clients.add(client);
+        // Start the stream with the newest known state
+        int[] sample = latestSample;
+        if (sample != null) {
+            client.offer(formatFrame(sample));
+        }
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(": connected\n\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            while (true) {
+                byte[] frame = client.take(KEEP_ALIVE_MILLIS);
+                body.write(frame != null ? frame : ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8));
+                body.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client disconnected or server closed
+        } finally {
+            clients.remove(client);
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+        server.stop(0);
+        clientThreads.shutdownNow();
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // Single frame slot of one connection; a newer frame replaces one that was not sent yet
+    private class Client {
+        private byte[] pending;
+
+        synchronized void offer(byte[] frame) {
+            if (pending != null) {
+                droppedFrames.incrementAndGet();
+            }
+            pending = frame;
+            notifyAll();
+        }
+
+        // The pending frame, or null if none arrived within timeoutMillis
+        synchronized byte[] take(long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining = timeoutMillis;
+            while (pending == null && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            byte[] frame = pending;
+            pending = null;
+            return frame;
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package org.example.poprojectgalaxyv7;
 
 public class VolitileStar extends Star {
-    public VolitileStar(double x, double y, int radius) {
-        super(x, y, radius);
+    public VolitileStar(double x, double y, int radius, GalaxyRandom random) {
+        super(x, y, radius, random);
     }
 
     @Override
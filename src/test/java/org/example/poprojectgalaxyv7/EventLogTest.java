@@ -0,0 +1,83 @@
+package org.example.poprojectgalaxyv7;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventLogTest {
+    @TempDir
+    Path directory;
+
+    private final List<GalaxySimulation> simulations = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        simulations.forEach(GalaxySimulation::shutdown);
+    }
+
+    @Test
+    void replayMatchesLiveSimulationAtSampledTicks() throws IOException {
+        GalaxySimulation simulation = simulation(new GalaxySimulation(300, 2, 8, 5));
+        simulation.createGalaxy();
+        simulation.step(500);
+        EventLog log = new EventLog(simulation);
+        simulation.addListener(log);
+
+        // Copies of the live state, the live simulation itself keeps running
+        Map<Long, GalaxySimulation> samples = new TreeMap<>();
+        for (int i = 0; i < 6; i++) {
+            simulation.step(2000);
+            samples.put(simulation.getTickCount(), simulation(GalaxySimulation.restore(simulation.snapshot())));
+        }
+
+        Path file = directory.resolve("galaxy" + EventLog.FILE_EXTENSION);
+        log.write(file);
+        EventReplay replay = new EventReplay(EventLog.read(file));
+
+        // Forward first, then backwards so rewinding is covered too
+        List<Long> ticks = new ArrayList<>(samples.keySet());
+        List<Long> reversed = new ArrayList<>(ticks);
+        Collections.reverse(reversed);
+        ticks.addAll(reversed);
+        for (long tick : ticks) {
+            replay.seek(tick);
+            assertMatches(samples.get(tick), replay);
+        }
+    }
+
+    private static void assertMatches(GalaxySimulation expected, EventReplay replay) {
+        long tick = replay.getTick();
+        assertEquals(expected.getTickCount(), tick);
+        assertEquals(expected.getStars().size(), replay.getRemainingStars(), "remaining stars at tick " + tick);
+
+        PlanetStore expectedPlanets = expected.getPlanetStore();
+        PlanetStore planets = replay.getPlanetStore();
+        for (int i = 0; i < expectedPlanets.size(); i++) {
+            assertEquals(expectedPlanets.isAlive(i), planets.isAlive(i), "planet " + i + " at tick " + tick);
+            if (expectedPlanets.isAlive(i)) {
+                assertEquals(expectedPlanets.getCivId(i), planets.getCivId(i), "owner of planet " + i + " at tick " + tick);
+            }
+        }
+        CivilizationRegistry civilizations = expected.getCivilizations();
+        for (int civId = 0; civId < civilizations.size(); civId++) {
+            assertEquals(civilizations.get(civId).getPowerPoints(), replay.getPowerPoints(civId),
+                    "power of civilization " + civId + " at tick " + tick);
+        }
+    }
+
+    private GalaxySimulation simulation(GalaxySimulation simulation) {
+        simulation.setVerbose(false);
+        simulations.add(simulation);
+        return simulation;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.poprojectgalaxyv7;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GalaxyLayoutTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readReturnsTheWrittenArrays() throws IOException {
+        GalaxyLayout layout = exportedLayout();
+        Path file = directory.resolve("galaxy" + GalaxyLayout.FILE_EXTENSION);
+        layout.write(file);
+        GalaxyLayout read = GalaxyLayout.read(file);
+
+        assertEquals(layout.worldWidth, read.worldWidth);
+        assertEquals(layout.worldHeight, read.worldHeight);
+        assertArrayEquals(layout.starX, read.starX);
+        assertArrayEquals(layout.starY, read.starY);
+        assertArrayEquals(layout.starRadius, read.starRadius);
+        assertArrayEquals(layout.orbitSpacing, read.orbitSpacing);
+        assertArrayEquals(layout.planetsPerStar, read.planetsPerStar);
+        assertArrayEquals(layout.starTypes, read.starTypes);
+        assertArrayEquals(layout.orbitDistance, read.orbitDistance);
+        assertArrayEquals(layout.angle, read.angle);
+        assertArrayEquals(layout.speed, read.speed);
+        assertArrayEquals(layout.planetRadius, read.planetRadius);
+        assertArrayEquals(layout.planetCivilization, read.planetCivilization);
+        assertArrayEquals(layout.civilizationColors, read.civilizationColors);
+        assertArrayEquals(layout.civilizationPowers, read.civilizationPowers);
+    }
+
+    @Test
+    void readRejectsTruncatedFile() throws IOException {
+        Path file = directory.resolve("galaxy" + GalaxyLayout.FILE_EXTENSION);
+        exportedLayout().write(file);
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), 100));
+
+        assertThrows(IOException.class, () -> GalaxyLayout.read(file));
+    }
+
+    private static GalaxyLayout exportedLayout() {
+        GalaxySimulation simulation = new GalaxySimulation(50, 2, 8, 3);
+        try {
+            simulation.setVerbose(false);
+            simulation.createGalaxy();
+            simulation.step(200);
+            return simulation.exportLayout();
+        } finally {
+            simulation.shutdown();
+        }
+    }
+}
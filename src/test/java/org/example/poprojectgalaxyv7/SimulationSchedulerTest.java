@@ -0,0 +1,87 @@
+package org.example.poprojectgalaxyv7;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SimulationSchedulerTest {
+    // 100 ticks per second, one tick every 10 ms
+    private static final long TICK = 10_000_000L;
+    private static final long START = 5_000_000_000L;
+
+    @Test
+    void firstFrameOnlyStartsTheClock() {
+        SimulationScheduler scheduler = new SimulationScheduler(100, 10);
+        assertEquals(0, scheduler.frame(START));
+        assertEquals(0.0, scheduler.getAlpha());
+    }
+
+    @Test
+    void runsOneTickPerElapsedInterval() {
+        SimulationScheduler scheduler = new SimulationScheduler(100, 10);
+        scheduler.frame(START);
+        assertEquals(3, scheduler.frame(START + 3 * TICK));
+        assertEquals(0, scheduler.frame(START + 3 * TICK + TICK / 2));
+        assertEquals(1, scheduler.frame(START + 4 * TICK + TICK / 2));
+    }
+
+    @Test
+    void carriesFractionsOverFrames() {
+        SimulationScheduler scheduler = new SimulationScheduler(100, 10);
+        scheduler.frame(START);
+        // 60 frames of 1/60 s make one second, so exactly 100 ticks however they are split
+        int ticks = 0;
+        for (int frame = 1; frame <= 60; frame++) {
+            ticks += scheduler.frame(START + frame * 1_000_000_000L / 60);
+        }
+        assertEquals(100, ticks);
+    }
+
+    @Test
+    void alphaIsTheFractionOfTheNextTick() {
+        SimulationScheduler scheduler = new SimulationScheduler(100, 10);
+        scheduler.frame(START);
+        scheduler.frame(START + 2 * TICK + TICK / 4);
+        assertEquals(0.25, scheduler.getAlpha(), 1e-9);
+        scheduler.frame(START + 2 * TICK + 3 * TICK / 4);
+        assertEquals(0.75, scheduler.getAlpha(), 1e-9);
+    }
+
+    @Test
+    void clampsStepsAfterAStallAndDropsTheBacklog() {
+        SimulationScheduler scheduler = new SimulationScheduler(100, 5);
+        scheduler.frame(START);
+        // A one second stall is 100 ticks behind, only 5 run and the rest is dropped
+        assertEquals(5, scheduler.frame(START + 100 * TICK + TICK / 2));
+        assertEquals(0.5, scheduler.getAlpha(), 1e-9);
+        assertEquals(1, scheduler.frame(START + 101 * TICK + TICK / 2));
+    }
+
+    @Test
+    void resetForgetsElapsedTime() {
+        SimulationScheduler scheduler = new SimulationScheduler(100, 10);
+        scheduler.frame(START);
+        scheduler.frame(START + TICK / 2);
+        scheduler.reset();
+        assertEquals(0, scheduler.frame(START + 50 * TICK));
+        assertEquals(0.0, scheduler.getAlpha());
+        assertEquals(2, scheduler.frame(START + 52 * TICK));
+    }
+
+    @Test
+    void changingTheRateAffectsLaterFrames() {
+        SimulationScheduler scheduler = new SimulationScheduler(100, 100);
+        scheduler.frame(START);
+        scheduler.setTicksPerSecond(200);
+        assertEquals(200.0, scheduler.getTicksPerSecond(), 1e-9);
+        assertEquals(20, scheduler.frame(START + 10 * TICK));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SimulationScheduler(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SimulationScheduler(Double.NaN, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SimulationScheduler(100, 0));
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.poprojectgalaxyv7;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SimulationSnapshotTest {
+    // Offset of the star count in a version 2 snapshot
+    private static final int STAR_COUNT_OFFSET = 104;
+
+    @TempDir
+    Path directory;
+
+    private final List<GalaxySimulation> simulations = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        simulations.forEach(GalaxySimulation::shutdown);
+    }
+
+    @Test
+    void restoredSimulationContinuesIdentically() throws IOException {
+        GalaxySimulation simulation = simulation(new GalaxySimulation(40, 2, 8, 11));
+        simulation.createGalaxy();
+        simulation.step(3000);
+
+        Path file = directory.resolve("galaxy" + SimulationSnapshot.FILE_EXTENSION);
+        simulation.snapshot().write(file);
+        GalaxySimulation restored = simulation(GalaxySimulation.restore(SimulationSnapshot.read(file)));
+        assertEquals(state(simulation), state(restored));
+
+        simulation.step(5000);
+        restored.step(5000);
+        assertEquals(state(simulation), state(restored));
+    }
+
+    @Test
+    void snapshotOfRestoredSimulationWritesTheSameBytes() throws IOException {
+        GalaxySimulation simulation = simulation(new GalaxySimulation(40, 2, 8, 7));
+        simulation.createGalaxy();
+        simulation.step(2000);
+
+        Path original = directory.resolve("original" + SimulationSnapshot.FILE_EXTENSION);
+        Path copy = directory.resolve("copy" + SimulationSnapshot.FILE_EXTENSION);
+        simulation.snapshot().write(original);
+        simulation(GalaxySimulation.restore(SimulationSnapshot.read(original))).snapshot().write(copy);
+
+        assertArrayEquals(Files.readAllBytes(original), Files.readAllBytes(copy));
+    }
+
+    @Test
+    void readRejectsCorruptCounts() throws IOException {
+        GalaxySimulation simulation = simulation(new GalaxySimulation(40, 2, 8, 3));
+        simulation.createGalaxy();
+        Path file = directory.resolve("galaxy" + SimulationSnapshot.FILE_EXTENSION);
+        simulation.snapshot().write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(simulation.getStars().size(), ByteBuffer.wrap(bytes).getInt(STAR_COUNT_OFFSET));
+
+        for (int starCount : new int[]{-1, Integer.MAX_VALUE}) {
+            ByteBuffer.wrap(bytes).putInt(STAR_COUNT_OFFSET, starCount);
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> SimulationSnapshot.read(file));
+        }
+    }
+
+    @Test
+    void readRejectsTruncatedFile() throws IOException {
+        GalaxySimulation simulation = simulation(new GalaxySimulation(40, 2, 8, 3));
+        simulation.createGalaxy();
+        Path file = directory.resolve("galaxy" + SimulationSnapshot.FILE_EXTENSION);
+        simulation.snapshot().write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> SimulationSnapshot.read(file));
+    }
+
+    private GalaxySimulation simulation(GalaxySimulation simulation) {
+        simulation.setVerbose(false);
+        simulations.add(simulation);
+        return simulation;
+    }
+
+    // Planets, civilizations, remaining stars and tick in one comparable string
+    static String state(GalaxySimulation simulation) {
+        StringBuilder state = new StringBuilder();
+        PlanetStore planets = simulation.getPlanetStore();
+        for (int i = 0; i < planets.size(); i++) {
+            state.append(planets.isAlive(i)).append(',')
+                    .append(planets.getCivId(i)).append(',')
+                    .append(planets.getX(i)).append(',')
+                    .append(planets.getY(i)).append(';');
+        }
+        CivilizationRegistry civilizations = simulation.getCivilizations();
+        for (int civId = 0; civId < civilizations.size(); civId++) {
+            Civilization civilization = civilizations.get(civId);
+            state.append(civilization.getColorArgb()).append(':').append(civilization.getPowerPoints()).append(' ');
+        }
+        return state.append(simulation.getStars().size()).append(' ').append(simulation.getTickCount()).toString();
+    }
+}